@@ -0,0 +1,182 @@
+package com.example.mylittlejarvisandroid;
+
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.media.MediaFormat;
+import android.os.SystemClock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// 기기 MediaCodec AAC-LC 인코더로 업로드 (ADTS 스트림, 24kbps : 16kHz 기준 약 3KB/s, 크기 약 1/10)
+// - 인코딩은 업로드 스레드(writeTo)에서 한 번만 하고 결과를 재시도에 재사용 (녹음 스레드를 막지 않음)
+// - 기기에 인코더가 없으면 isAvailable 이 false (서비스는 ADPCM 으로 대체)
+public class AacUplinkEncoder implements UplinkEncoder {
+    private static final MediaType AUDIO_AAC = MediaType.parse("audio/aac");
+    private static final int BIT_RATE = 24000;
+    private static final long TIMEOUT_US = 10_000;
+    private static final long MAX_ENCODE_MS = 10_000;  // 인코더가 멈춘 경우 대비
+    private static final int ADTS_HEADER_SIZE = 7;
+    private static final int[] SAMPLE_RATES = {96000, 88200, 64000, 48000, 44100, 32000, 24000, 22050, 16000, 12000, 11025, 8000, 7350};
+
+    @Override
+    public String format() {
+        return "aac";
+    }
+
+    @Override
+    public String fileName() {
+        return "stt.aac";
+    }
+
+    @Override
+    public RequestBody encode(PcmBufferPool.Buffer pcm, int sampleRate) {
+        return new Body(pcm, sampleRate);
+    }
+
+    public static boolean isAvailable(int sampleRate) {
+        try {
+            return sampleRateIndex(sampleRate) >= 0
+                    && new MediaCodecList(MediaCodecList.REGULAR_CODECS).findEncoderForFormat(createFormat(sampleRate)) != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static MediaFormat createFormat(int sampleRate) {
+        MediaFormat format = MediaFormat.createAudioFormat(MediaFormat.MIMETYPE_AUDIO_AAC, sampleRate, 1);
+        format.setInteger(MediaFormat.KEY_AAC_PROFILE, MediaCodecInfo.CodecProfileLevel.AACObjectLC);
+        format.setInteger(MediaFormat.KEY_BIT_RATE, BIT_RATE);
+        return format;
+    }
+
+    private static int sampleRateIndex(int sampleRate) {
+        for (int i = 0; i < SAMPLE_RATES.length; i++) {
+            if (SAMPLE_RATES[i] == sampleRate) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // PCM -> ADTS 프레임 연결
+    static byte[] encodeAdts(short[] pcm, int length, int sampleRate) throws IOException {
+        int rateIndex = sampleRateIndex(sampleRate);
+        if (rateIndex < 0) {
+            throw new IOException("AAC unsupported sample rate : " + sampleRate);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 4 + 64);
+        MediaCodec codec = MediaCodec.createEncoderByType(MediaFormat.MIMETYPE_AUDIO_AAC);
+        try {
+            codec.configure(createFormat(sampleRate), null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+            codec.start();
+
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            byte[] frame = new byte[1024];
+            int pos = 0;
+            boolean inputDone = false;
+            boolean outputDone = false;
+            long deadline = SystemClock.elapsedRealtime() + MAX_ENCODE_MS;
+            while (!outputDone) {
+                if (SystemClock.elapsedRealtime() > deadline) {
+                    throw new IOException("AAC encode timeout");
+                }
+                if (!inputDone) {
+                    int inIndex = codec.dequeueInputBuffer(TIMEOUT_US);
+                    if (inIndex >= 0) {
+                        ByteBuffer input = codec.getInputBuffer(inIndex);
+                        input.clear();
+                        int count = Math.min(input.remaining() / 2, length - pos);
+                        input.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(pcm, pos, count);
+                        long presentationUs = pos * 1_000_000L / sampleRate;
+                        pos += count;
+                        inputDone = pos >= length;
+                        codec.queueInputBuffer(inIndex, 0, count * 2, presentationUs,
+                                inputDone ? MediaCodec.BUFFER_FLAG_END_OF_STREAM : 0);
+                    }
+                }
+
+                int outIndex = codec.dequeueOutputBuffer(info, TIMEOUT_US);
+                if (outIndex >= 0) {
+                    if ((info.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) == 0 && info.size > 0) {
+                        ByteBuffer output = codec.getOutputBuffer(outIndex);
+                        output.position(info.offset);
+                        output.limit(info.offset + info.size);
+                        if (frame.length < info.size) {
+                            frame = new byte[info.size];
+                        }
+                        output.get(frame, 0, info.size);
+                        writeAdtsHeader(out, info.size, rateIndex);
+                        out.write(frame, 0, info.size);
+                    }
+                    outputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                    codec.releaseOutputBuffer(outIndex, false);
+                }
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("AAC encode failed : " + e.getMessage(), e);
+        } finally {
+            try {
+                codec.stop();
+            } catch (IllegalStateException ignored) {
+                // configure 실패 등으로 시작 전이면 stop 불가
+            }
+            codec.release();
+        }
+        return out.toByteArray();
+    }
+
+    // ADTS 헤더 (CRC 없음, AAC-LC, 모노)
+    private static void writeAdtsHeader(ByteArrayOutputStream out, int frameSize, int rateIndex) {
+        int packetLength = frameSize + ADTS_HEADER_SIZE;
+        int profile = 1;  // AAC-LC (objectType 2 - 1)
+        int channels = 1;
+        out.write(0xFF);
+        out.write(0xF1);  // MPEG-4, CRC 없음
+        out.write((profile << 6) | (rateIndex << 2) | (channels >> 2));
+        out.write(((channels & 3) << 6) | (packetLength >> 11));
+        out.write((packetLength >> 3) & 0xFF);
+        out.write(((packetLength & 7) << 5) | 0x1F);
+        out.write(0xFC);
+    }
+
+    private static final class Body extends RequestBody {
+        private final PcmBufferPool.Buffer pcm;
+        private final int sampleRate;
+        private byte[] encoded;  // 첫 writeTo 에서 인코딩
+
+        Body(PcmBufferPool.Buffer pcm, int sampleRate) {
+            this.pcm = pcm;
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return AUDIO_AAC;
+        }
+
+        @Override
+        public synchronized long contentLength() {
+            return encoded != null ? encoded.length : -1;  // 인코딩 전에는 chunked 전송
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            byte[] data;
+            synchronized (this) {
+                if (encoded == null) {
+                    encoded = encodeAdts(pcm.data(), pcm.length(), sampleRate);
+                }
+                data = encoded;
+            }
+            sink.write(data);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// IMA ADPCM 업로드 (샘플당 4비트, WAV 포맷 태그 0x11) : 16kHz 기준 약 8KB/s, 크기 약 1/4
+// - 블록(256바이트 = 505샘플)마다 첫 샘플 / step index 헤더가 있어서 블록 단위로 독립 디코딩 가능
+// - 마지막 블록은 무음으로 채우고 실제 샘플 수는 fact 청크에 기록
+public class AdpcmUplinkEncoder implements UplinkEncoder {
+    private static final MediaType AUDIO_WAV = MediaType.parse("audio/wav");
+    private static final int FORMAT_IMA_ADPCM = 0x11;
+    public static final int BLOCK_ALIGN = 256;
+    public static final int SAMPLES_PER_BLOCK = (BLOCK_ALIGN - 4) * 2 + 1;
+    private static final byte[] EXTRA = {(byte) (SAMPLES_PER_BLOCK & 0xff), (byte) (SAMPLES_PER_BLOCK >> 8)};
+
+    private static final int[] INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8, -1, -1, -1, -1, 2, 4, 6, 8};
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+            15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    @Override
+    public String format() {
+        return "adpcm";
+    }
+
+    @Override
+    public String fileName() {
+        return "stt.wav";
+    }
+
+    @Override
+    public RequestBody encode(PcmBufferPool.Buffer pcm, int sampleRate) {
+        return new Body(pcm, sampleRate);
+    }
+
+    public static int blockCount(int sampleCount) {
+        return (sampleCount + SAMPLES_PER_BLOCK - 1) / SAMPLES_PER_BLOCK;
+    }
+
+    // 한 블록 인코딩 (count <= SAMPLES_PER_BLOCK, 모자란 샘플은 0), 다음 블록의 step index 반환
+    public static int encodeBlock(short[] pcm, int offset, int count, int index, byte[] block) {
+        int predictor = count > 0 ? pcm[offset] : 0;
+        block[0] = (byte) predictor;
+        block[1] = (byte) (predictor >> 8);
+        block[2] = (byte) index;
+        block[3] = 0;
+
+        for (int i = 1; i < SAMPLES_PER_BLOCK; i++) {
+            int sample = i < count ? pcm[offset + i] : 0;
+            int diff = sample - predictor;
+            int nibble = 0;
+            if (diff < 0) {
+                nibble = 8;
+                diff = -diff;
+            }
+            int step = STEP_TABLE[index];
+            int delta = step >> 3;
+            if (diff >= step) {
+                nibble |= 4;
+                diff -= step;
+                delta += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                nibble |= 2;
+                diff -= step;
+                delta += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                nibble |= 1;
+                delta += step;
+            }
+            predictor = clamp16((nibble & 8) != 0 ? predictor - delta : predictor + delta);
+            index = clampIndex(index + INDEX_TABLE[nibble]);
+
+            // 샘플 1, 2 -> 첫 바이트의 하위 / 상위 니블
+            int pos = 4 + ((i - 1) >> 1);
+            if ((i & 1) != 0) {
+                block[pos] = (byte) nibble;
+            } else {
+                block[pos] |= (byte) (nibble << 4);
+            }
+        }
+        return index;
+    }
+
+    // 한 블록 디코딩 (SAMPLES_PER_BLOCK 샘플)
+    public static void decodeBlock(byte[] block, int offset, short[] out, int outOffset) {
+        int predictor = (short) ((block[offset] & 0xff) | (block[offset + 1] << 8));
+        int index = clampIndex(block[offset + 2] & 0xff);
+        out[outOffset] = (short) predictor;
+
+        for (int i = 1; i < SAMPLES_PER_BLOCK; i++) {
+            int b = block[offset + 4 + ((i - 1) >> 1)] & 0xff;
+            int nibble = (i & 1) != 0 ? b & 0x0f : b >> 4;
+            int step = STEP_TABLE[index];
+            int delta = step >> 3;
+            if ((nibble & 4) != 0) {
+                delta += step;
+            }
+            if ((nibble & 2) != 0) {
+                delta += step >> 1;
+            }
+            if ((nibble & 1) != 0) {
+                delta += step >> 2;
+            }
+            predictor = clamp16((nibble & 8) != 0 ? predictor - delta : predictor + delta);
+            index = clampIndex(index + INDEX_TABLE[nibble]);
+            out[outOffset + i] = (short) predictor;
+        }
+    }
+
+    private static int clamp16(int value) {
+        return value > Short.MAX_VALUE ? Short.MAX_VALUE : Math.max(value, Short.MIN_VALUE);
+    }
+
+    private static int clampIndex(int index) {
+        return index < 0 ? 0 : Math.min(index, STEP_TABLE.length - 1);
+    }
+
+    // 본문은 writeTo 때마다 pcm 에서 바로 변환 (재시도 시에도 같은 결과)
+    private static final class Body extends RequestBody {
+        private final PcmBufferPool.Buffer pcm;
+        private final int sampleRate;
+        private final byte[] block = new byte[BLOCK_ALIGN];
+
+        Body(PcmBufferPool.Buffer pcm, int sampleRate) {
+            this.pcm = pcm;
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return AUDIO_WAV;
+        }
+
+        @Override
+        public long contentLength() {
+            return WavUtils.compressedHeaderSize(EXTRA.length) + (long) blockCount(pcm.length()) * BLOCK_ALIGN;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            int length = pcm.length();
+            int blocks = blockCount(length);
+            int byteRate = (int) ((long) sampleRate * BLOCK_ALIGN / SAMPLES_PER_BLOCK);
+            WavUtils.writeCompressedHeader(sink, FORMAT_IMA_ADPCM, sampleRate, byteRate, BLOCK_ALIGN, 4, EXTRA,
+                    length, blocks * BLOCK_ALIGN);
+
+            short[] data = pcm.data();
+            int index = 0;
+            for (int i = 0; i < length; i += SAMPLES_PER_BLOCK) {
+                index = encodeBlock(data, i, Math.min(SAMPLES_PER_BLOCK, length - i), index, block);
+                sink.write(block);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+// base URL 별 ApiService 공용 보관소
+// 모든 호출이 하나의 OkHttpClient(커넥션 풀, 디스패처)를 공유해서 STT / 대화 / TTS 간 keep-alive 연결을 재사용
+// (HTTPS 서버면 OkHttp 기본 설정으로 HTTP/2 다중화도 사용됨)
+// 콜백은 OkHttp 스레드에서 바로 실행하고, 실제 처리는 CallTracker 가 ServiceScheduler 로 넘김
+public class ApiClientRegistry {
+    private static final Executor DIRECT = Runnable::run;
+
+    // 일반 API (OkHttp 기본 타임아웃), 동시 요청 수 제한
+    private static final OkHttpClient apiClient = new OkHttpClient.Builder()
+            .dispatcher(createDispatcher())
+            .build();
+    // 스트림 전용 : newBuilder 로 만들어 커넥션 풀과 디스패처는 apiClient 와 공유
+    private static final OkHttpClient streamingClient = apiClient.newBuilder()
+            .connectTimeout(100, TimeUnit.SECONDS)
+            .readTimeout(100, TimeUnit.SECONDS)
+            .build();
+
+    private static final Map<String, Entry> services = new HashMap<>();
+
+    private static class Entry {
+        final String baseUrl;
+        final ApiService apiService;
+
+        Entry(String baseUrl, ApiService apiService) {
+            this.baseUrl = baseUrl;
+            this.apiService = apiService;
+        }
+    }
+
+    private static Dispatcher createDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(16);
+        dispatcher.setMaxRequestsPerHost(8);  // STT + 스트림 + TTS(MAX_TTS_IN_FLIGHT) 여유분
+        return dispatcher;
+    }
+
+    // 일반 API (STT, TTS)
+    public static ApiService get(String baseUrl) {
+        return get(apiClient, "api|", baseUrl);
+    }
+
+    // 대화 스트림
+    public static ApiService getStreaming(String baseUrl) {
+        return get(streamingClient, "stream|", baseUrl);
+    }
+
+    private static synchronized ApiService get(OkHttpClient client, String kind, String baseUrl) {
+        String key = kind + baseUrl;
+        Entry entry = services.get(key);
+        if (entry == null) {
+            Retrofit retrofit = new Retrofit.Builder()
+                    .baseUrl(baseUrl)
+                    .client(client)
+                    .addConverterFactory(GsonConverterFactory.create())
+                    .callbackExecutor(DIRECT)
+                    .build();
+            entry = new Entry(baseUrl, retrofit.create(ApiService.class));
+            services.put(key, entry);
+            ServiceLog.d("SERVICE API", "ApiService created : " + key);
+        }
+        return entry.apiService;
+    }
+
+    // Bridge URL 변경 시 현재 URL 외의 ApiService 정리
+    public static synchronized void retainOnly(String... baseUrls) {
+        Iterator<Entry> it = services.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            boolean keep = false;
+            for (String url : baseUrls) {
+                if (entry.baseUrl.equals(url)) {
+                    keep = true;
+                    break;
+                }
+            }
+            if (!keep) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -10,7 +10,9 @@ import retrofit2.http.Body;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
+import retrofit2.http.Query;
 import retrofit2.http.Streaming;
+import retrofit2.http.Url;
 
 public interface ApiService {
     @Multipart
@@ -19,18 +21,37 @@ public interface ApiService {
             @Part MultipartBody.Part file,
             @Part("lang") RequestBody lang,
             @Part("level") RequestBody level,
-            @Part("chatIdx") RequestBody chatIdx
+            @Part("chatIdx") RequestBody chatIdx,
+            @Part("format") RequestBody format  // wav, mulaw, adpcm, aac
     );
 
-    @POST("/conversation_stream")
+    // 스트리밍 STT : 발화 중 PCM 청크 (16비트 리틀 엔디안 모노), 응답 {"partial": 중간 인식 결과}
+    @POST("stt_stream/chunk")
+    Call<JsonObject> sendSttChunk(
+            @Query("stream_id") String streamId,
+            @Query("seq") int seq,
+            @Query("sample_rate") int sampleRate,
+            @Body RequestBody pcm
+    );
+
+    // 스트리밍 STT 종료 : 응답은 stt 와 같음 ({text, lang, chatIdx})
+    @POST("stt_stream/finalize")
+    Call<JsonObject> finalizeStt(@Body JsonObject request);
+
+    // 대화 스트림 (url : conversation_stream 또는 conversation_stream_gemini)
+    @POST
     @Streaming
-    Call<ResponseBody> streamConversation(@Body RequestBody requestBody);
+    Call<ResponseBody> streamConversation(@Url String url, @Body RequestBody requestBody);
+
+    // 대화 세션 시작 : 고정 프로필(캐릭터, 플레이어, 언어 등)을 한 번 보내고 {session_id} 를 받음
+    @POST("conversation_session")
+    Call<JsonObject> openConversationSession(@Body RequestBody profile);
 
     @POST("getSound/jp")
-//    @Streaming
+    @Streaming
     Call<ResponseBody> synthesizeSound(@Body JsonObject requestData);
 
     @POST("getSound/ko")
-//    @Streaming
+    @Streaming
     Call<ResponseBody> synthesizeSoundKo(@Body JsonObject requestData);
 }
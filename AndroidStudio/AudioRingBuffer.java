@@ -0,0 +1,105 @@
+package com.example.mylittlejarvisandroid;
+
+// 고정 크기 short[] 원형 버퍼 (최근 capacity개 샘플 유지)
+// 생성 시 한 번만 할당하고, 이후 write/view 에서는 할당하지 않음
+public class AudioRingBuffer {
+    private final short[] data;
+    private final int capacity;
+    private long writePos = 0;  // 지금까지 기록된 총 샘플 수 (절대 위치)
+
+    public AudioRingBuffer(int capacity) {
+        this.capacity = capacity;
+        this.data = new short[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // 현재 보관 중인 샘플 수 (최대 capacity)
+    public int size() {
+        return (int) Math.min(writePos, capacity);
+    }
+
+    // 다음에 기록될 샘플의 절대 위치
+    public long position() {
+        return writePos;
+    }
+
+    // 보관 중인 가장 오래된 샘플의 절대 위치
+    public long oldestPosition() {
+        return writePos - size();
+    }
+
+    public void clear() {
+        writePos = 0;
+    }
+
+    // 샘플 추가 (capacity 초과분은 가장 오래된 샘플부터 덮어씀)
+    public void write(short[] src, int offset, int length) {
+        if (length > capacity) {
+            offset += length - capacity;
+            writePos += length - capacity;
+            length = capacity;
+        }
+        int start = (int) (writePos % capacity);
+        int first = Math.min(length, capacity - start);
+        System.arraycopy(src, offset, data, start, first);
+        if (first < length) {
+            System.arraycopy(src, offset + first, data, 0, length - first);
+        }
+        writePos += length;
+    }
+
+    // 절대 위치의 샘플 (보관 범위 안이어야 함)
+    public short get(long pos) {
+        return data[(int) (pos % capacity)];
+    }
+
+    // 최근 samples개 구간 (보관량보다 크면 보관량만큼)
+    public View last(int samples, View reuse) {
+        return range(writePos - samples, writePos, reuse);
+    }
+
+    // [from, to) 구간, 이미 덮어쓴 앞부분은 잘라냄
+    public View range(long from, long to, View reuse) {
+        View view = reuse != null ? reuse : new View();
+        long start = Math.max(from, oldestPosition());
+        long end = Math.min(to, writePos);
+        view.ring = this;
+        view.start = start;
+        view.length = (int) Math.max(0, end - start);
+        return view;
+    }
+
+    // 원형 버퍼 위의 구간 (복사 없음)
+    // 이후 write로 덮어쓰기 전까지만 유효하므로 기록 스레드에서 바로 소비할 것
+    public static final class View {
+        private AudioRingBuffer ring;
+        private long start;
+        private int length;
+
+        public int length() {
+            return length;
+        }
+
+        public long start() {
+            return start;
+        }
+
+        public short get(int i) {
+            return ring.data[(int) ((start + i) % ring.capacity)];
+        }
+
+        // dst에 구간 전체 복사, 복사한 샘플 수 반환
+        public int copyTo(short[] dst, int dstOffset) {
+            int begin = (int) (start % ring.capacity);
+            int first = Math.min(length, ring.capacity - begin);
+            System.arraycopy(ring.data, begin, dst, dstOffset, first);
+            if (first < length) {
+                System.arraycopy(ring.data, 0, dst, dstOffset + first, length - first);
+            }
+            return length;
+        }
+    }
+}
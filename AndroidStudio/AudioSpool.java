@@ -0,0 +1,90 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// TTS 음성 버퍼(TtsAudioStream) 메모리 관리
+// - 살아 있는 버퍼 전체 용량을 budgetBytes 이하로 유지 (버퍼가 커질 때 예약, 참조가 모두 풀리면 반납)
+// - 예산을 넘으면 다운로드 스레드는 앞 문장이 재생을 끝내고 메모리를 돌려줄 때까지 대기
+//   단, 지금 재생 중인 버퍼는 기다리지 않음 (재생이 끝나야 메모리가 풀리므로)
+// - 오래 기다려도 풀리지 않으면 예산을 넘겨서라도 진행 (재생이 멈추는 것보다 나음)
+// - 디버그 WAV 파일 번호도 여기서 원자적으로 발급 (recorded_audio{n}.wav)
+public class AudioSpool {
+    private static final long MAX_WAIT_MS = 5000;
+
+    private final long budgetBytes;
+    private final int debugSlots;
+    private final AtomicInteger debugSlot = new AtomicInteger();
+
+    private long usedBytes = 0;
+    private long peakBytes = 0;
+    private int openStreams = 0;
+    private long waits = 0;
+    private long overBudget = 0;
+
+    public AudioSpool(long budgetBytes, int debugSlots) {
+        this.budgetBytes = budgetBytes;
+        this.debugSlots = debugSlots;
+    }
+
+    // 새 버퍼 (참조 2개 : 재생용 + 다운로드용, 각각 release 해야 반납됨)
+    public TtsAudioStream open() {
+        return new TtsAudioStream(this);
+    }
+
+    // 버퍼 용량 증가 예약, 버퍼가 취소되면 false
+    boolean reserve(TtsAudioStream stream, long bytes) throws InterruptedException {
+        synchronized (this) {
+            long deadline = System.currentTimeMillis() + MAX_WAIT_MS;
+            boolean waited = false;
+            while (usedBytes + bytes > budgetBytes && !stream.isPlaying() && !stream.isCancelled()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    overBudget++;
+                    break;
+                }
+                if (!waited) {
+                    waits++;
+                    waited = true;
+                }
+                wait(remaining);
+            }
+            if (stream.isCancelled()) {
+                return false;
+            }
+            usedBytes += bytes;
+            peakBytes = Math.max(peakBytes, usedBytes);
+            return true;
+        }
+    }
+
+    synchronized void opened(long bytes) {
+        openStreams++;
+        usedBytes += bytes;
+        peakBytes = Math.max(peakBytes, usedBytes);
+    }
+
+    synchronized void free(long bytes) {
+        openStreams--;
+        usedBytes -= bytes;
+        notifyAll();
+    }
+
+    // 재생 시작 / 취소 등 대기 조건이 바뀜
+    synchronized void wake() {
+        notifyAll();
+    }
+
+    // 디버그 파일 번호 (0 ~ debugSlots - 1 순환)
+    public int nextDebugSlot() {
+        return Math.floorMod(debugSlot.getAndIncrement(), debugSlots);
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized String stats() {
+        return "used=" + usedBytes + "/" + budgetBytes + " peak=" + peakBytes + " streams=" + openStreams
+                + " waits=" + waits + " overBudget=" + overBudget;
+    }
+}
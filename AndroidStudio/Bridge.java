@@ -11,20 +11,26 @@ import android.os.Handler;
 import android.provider.Settings;
 import android.util.Log;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class Bridge extends Application {
     private static Context context;
     static Activity unityActivity;
     
-    // 전달받은 유니티 값
-    static String baseUrl;
-    static String nickname;
-    static String player_name;
-    static String sound_language;
-    static String sound_volume;
-    static String sound_speed;
-    static String file_path;
-    static String server_type_idx;  // 0: Auto, 1: Server, 2: Free(Gemini), 3: Free(OpenRouter), 4: Paid(Gemini)
-    static String dev_voice_url;  // dev_voice 서버 URL (server_type_idx == 2일 때 사용)
+    // 전달받은 유니티 값 (불변 스냅샷, Receive* 마다 통째로 교체 : 서비스는 config() 로 잠금 없이 읽음)
+    private static final AtomicReference<BridgeConfig> config = new AtomicReference<>(BridgeConfig.DEFAULT);
+
+    // 현재 설정에서 값 하나를 바꾼 새 설정
+    interface Change {
+        BridgeConfig.Builder apply(BridgeConfig.Builder builder);
+    }
 
 
     private static final int NOTIFICATION_ID = 1;
@@ -32,6 +38,15 @@ public class Bridge extends Application {
     private static Handler notificationHandler = new Handler();
     private static Runnable notificationRunnable;
 
+    // 유니티 메시지 모아 보내기 (UnitySendMessage 마다 메인 스레드를 깨우지 않음)
+    private static final long OUTBOX_WINDOW_MS = 16;  // 약 1프레임
+    private static final BridgeOutbox outbox = new BridgeOutbox(Bridge::sendToUnity,
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Bridge Outbox");
+                thread.setDaemon(true);
+                return thread;
+            }), OUTBOX_WINDOW_MS);
+
     @Override
     public void onCreate() {
         super.onCreate();
@@ -42,6 +57,32 @@ public class Bridge extends Application {
         return context;
     }
 
+    public static BridgeConfig config() {
+        return config.get();
+    }
+
+    // 새 스냅샷으로 교체 (동시에 바뀌면 다시 적용) 후 달라진 값에 필요한 것만 갱신
+    static BridgeConfig update(Change change) {
+        BridgeConfig prev;
+        BridgeConfig next;
+        do {
+            prev = config.get();
+            next = change.apply(prev.toBuilder()).build();
+        } while (!config.compareAndSet(prev, next));
+        onChanged(prev, next);
+        return next;
+    }
+
+    private static void onChanged(BridgeConfig prev, BridgeConfig next) {
+        // 서버 주소가 바뀐 경우에만 남은 HTTP 클라이언트 정리
+        if (!Objects.equals(prev.baseUrl, next.baseUrl) || !prev.devVoiceUrl.equals(next.devVoiceUrl)) {
+            ApiClientRegistry.retainOnly(next.baseUrl, next.devVoiceUrl);
+        }
+        if (!prev.logLevel.equals(next.logLevel)) {
+            ServiceLog.setLevel(next.logLevel);
+        }
+    }
+
     // 자동 시작 설정을 위한 인텐트 배열 (특정 제조사 지원)
     public static final Intent[] POWERMANAGER_INTENTS = new Intent[]{
             // 각 제조사별 자동 시작 관리 화면으로 이동하는 인텐트 설정
@@ -67,40 +108,99 @@ public class Bridge extends Application {
     }
 
     public static void ReceiveBaseUrl(String receivedText) {
-        baseUrl = receivedText;
-        Log.i("BRIDGE", "ReceiveBaseUrl received. : " + baseUrl);
+        update(builder -> builder.baseUrl(receivedText));
+        Log.i("BRIDGE", "ReceiveBaseUrl received. : " + receivedText);
     }
     public static void ReceiveNickname(String receivedText) {
-        nickname = receivedText;
-        Log.i("BRIDGE", "ReceiveNickname received. : " + nickname);
+        update(builder -> builder.nickname(receivedText));
+        Log.i("BRIDGE", "ReceiveNickname received. : " + receivedText);
     }
     public static void ReceivePlayerName(String receivedText) {
-        player_name = receivedText;
-        Log.i("BRIDGE", "ReceivePlayerName received. : " + player_name);
+        update(builder -> builder.playerName(receivedText));
+        Log.i("BRIDGE", "ReceivePlayerName received. : " + receivedText);
     }
     public static void ReceiveSoundLanguage(String receivedText) {
-        sound_language = receivedText;
-        Log.i("BRIDGE", "ReceiveSoundLanguage received. : " + sound_language);
+        update(builder -> builder.soundLanguage(receivedText));
+        Log.i("BRIDGE", "ReceiveSoundLanguage received. : " + receivedText);
     }
     public static void ReceiveSoundVolume(String receivedText) {
-        sound_volume = receivedText;
-        Log.i("BRIDGE", "ReceiveSoundVolume received. : " + sound_volume);
+        update(builder -> builder.soundVolume(receivedText));
+        Log.i("BRIDGE", "ReceiveSoundVolume received. : " + receivedText);
     }
     public static void ReceiveSoundSpeed(String receivedText) {
-        sound_speed = receivedText;
-        Log.i("BRIDGE", "ReceiveSoundSpeed received. : " + sound_speed);
+        update(builder -> builder.soundSpeed(receivedText));
+        Log.i("BRIDGE", "ReceiveSoundSpeed received. : " + receivedText);
     }
     public static void ReceiveFilePath(String receivedText) {
-        file_path = receivedText;
-        Log.i("BRIDGE", "ReceiveFilePath received. : " + file_path);
+        update(builder -> builder.filePath(receivedText));
+        Log.i("BRIDGE", "ReceiveFilePath received. : " + receivedText);
     }
     public static void ReceiveServerTypeIdx(String receivedText) {
-        server_type_idx = receivedText;
-        Log.i("BRIDGE", "ReceiveServerTypeIdx received. : " + server_type_idx);
+        update(builder -> builder.serverTypeIdx(receivedText));
+        Log.i("BRIDGE", "ReceiveServerTypeIdx received. : " + receivedText);
     }
     public static void ReceiveDevVoiceUrl(String receivedText) {
-        dev_voice_url = receivedText;
-        Log.i("BRIDGE", "ReceiveDevVoiceUrl received. : " + dev_voice_url);
+        update(builder -> builder.devVoiceUrl(receivedText));
+        Log.i("BRIDGE", "ReceiveDevVoiceUrl received. : " + receivedText);
+    }
+    public static void ReceiveVadType(String receivedText) {
+        update(builder -> builder.vadType(receivedText));
+        Log.i("BRIDGE", "ReceiveVadType received. : " + receivedText);
+    }
+    public static void ReceiveUplinkFormat(String receivedText) {
+        update(builder -> builder.uplinkFormat(receivedText));
+        Log.i("BRIDGE", "ReceiveUplinkFormat received. : " + receivedText);
+    }
+    public static void ReceiveSttMode(String receivedText) {
+        update(builder -> builder.sttMode(receivedText));
+        Log.i("BRIDGE", "ReceiveSttMode received. : " + receivedText);
+    }
+    public static void ReceiveSpeculativeStart(String receivedText) {
+        update(builder -> builder.speculativeStart(receivedText));
+        Log.i("BRIDGE", "ReceiveSpeculativeStart received. : " + receivedText);
+    }
+    public static void ReceiveLogLevel(String receivedText) {
+        update(builder -> builder.logLevel(receivedText));
+        Log.i("BRIDGE", "ReceiveLogLevel received. : " + receivedText);
+    }
+
+    // 대화 단계별 지연 통계 (ms) : GameManager.OnLatencyReport 로 JSON 전달 + latency_report.json 저장
+    public static void RequestLatencyReport() {
+        String report = MyBackgroundService.latencyTracer.snapshot().toString();
+        Log.i("BRIDGE", "Latency report : " + report);
+        File dir = context != null ? context.getExternalFilesDir(null) : null;
+        if (dir != null) {
+            File file = new File(dir, "latency_report.json");
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(report.getBytes(StandardCharsets.UTF_8));
+                Log.i("BRIDGE", "Latency report saved : " + file.getAbsolutePath());
+            } catch (IOException e) {
+                Log.e("BRIDGE", "Latency report save error : " + e.getMessage());
+            }
+        }
+        UnitySendLatest("GameManager", "OnLatencyReport", report);
+    }
+    public static void ResetLatencyStats() {
+        MyBackgroundService.latencyTracer.reset();
+        Log.i("BRIDGE", "ResetLatencyStats");
+    }
+
+    // 서비스 메모리 로그(최근 기록) 저장 : service_log.txt 경로를 GameManager.OnServiceLogDumped 로 전달
+    public static void DumpServiceLog() {
+        File dir = context != null ? context.getExternalFilesDir(null) : null;
+        if (dir == null) {
+            Log.e("BRIDGE", "DumpServiceLog : no storage");
+            return;
+        }
+        File file = new File(dir, "service_log.txt");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(ServiceLog.dump().getBytes(StandardCharsets.UTF_8));
+            Log.i("BRIDGE", "Service log saved : " + file.getAbsolutePath());
+        } catch (IOException e) {
+            Log.e("BRIDGE", "Service log save error : " + e.getMessage());
+            return;
+        }
+        UnitySendMessage("GameManager", "OnServiceLogDumped", file.getAbsolutePath());
     }
 
 
@@ -236,14 +336,23 @@ public class Bridge extends Application {
         }
     }
 
-    // 유니티로 메시지 전송
+    // 유니티로 메시지 전송 (한 프레임 안의 메시지는 모아서 전송)
     public static void UnitySendMessage(String gameObject, String methodName, String param) {
+        outbox.post(gameObject, methodName, param);
+    }
+
+    // 최신 값만 의미 있는 메시지 (아직 보내지 않은 같은 메시지는 대체)
+    public static void UnitySendLatest(String gameObject, String methodName, String param) {
+        outbox.postLatest(gameObject, methodName, param);
+    }
+
+    // BridgeOutbox flush 스레드에서 실제 전송
+    private static void sendToUnity(String gameObject, String methodName, String param) {
         try {
-            Log.i("BRIDGE", "[Android] ["+methodName+"] 발신 시작");
             com.unity3d.player.UnityPlayer.UnitySendMessage(gameObject, methodName, param);
-            Log.i("BRIDGE", "[Android] ["+methodName+"] 발신 완료");
+            ServiceLog.d("BRIDGE", () -> "[Android] [" + methodName + "] 발신 완료");
         } catch (Exception e) {
-            Log.e("BRIDGE", "[Android] 유니티 메시지 전송 오류: " + e.getMessage());
+            ServiceLog.e("BRIDGE", "[Android] 유니티 메시지 전송 오류: " + e.getMessage());
         }
     }
 }
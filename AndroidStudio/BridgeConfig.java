@@ -0,0 +1,207 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.Locale;
+
+// Unity 에서 받은 설정의 불변 스냅샷 (기본값 적용, 숫자 / 선택 값은 미리 파싱)
+// - Bridge.Receive* 마다 toBuilder 로 새 스냅샷을 만들어 통째로 교체하고, 서비스는 Bridge.config() 로 잠금 없이 읽음
+// - 한 요청 안에서는 시작할 때 읽은 스냅샷 하나만 사용 (중간에 설정이 바뀌어도 값이 섞이지 않음)
+public final class BridgeConfig {
+    public static final BridgeConfig DEFAULT = new Builder().build();
+
+    // 원본 값 (Builder 로 다시 만들 때 사용)
+    private final String rawSoundVolume;
+    private final String rawServerTypeIdx;
+
+    public final String baseUrl;  // 받기 전에는 null
+    public final String nickname;
+    public final String playerName;
+    public final String soundLanguage;  // 받기 전에는 "" (TTS 는 일본어)
+    public final float soundVolume;  // 0.0 ~ 1.0
+    public final String soundSpeed;
+    public final String filePath;
+    public final int serverTypeIdx;  // 0: Auto, 1: Server, 2: Free(Gemini), 3: Free(OpenRouter), 4: Paid(Gemini)
+    public final String devVoiceUrl;  // server_type_idx == 2 일 때 TTS 서버 ("" 이면 baseUrl)
+    public final String vadType;  // energy, zcr, spectral
+    public final String uplinkFormat;  // wav, mulaw, adpcm, aac
+    public final boolean sttStreaming;  // stt_mode == "stream"
+    public final boolean speculativeStart;  // speculative_start == "on"
+    public final String logLevel;
+
+    private BridgeConfig(Builder builder) {
+        this.rawSoundVolume = builder.soundVolume;
+        this.rawServerTypeIdx = builder.serverTypeIdx;
+        this.baseUrl = builder.baseUrl;
+        this.nickname = orDefault(builder.nickname, "arona");
+        this.playerName = orDefault(builder.playerName, "sensei");
+        this.soundLanguage = orDefault(builder.soundLanguage, "");
+        this.soundVolume = parseVolume(builder.soundVolume);
+        this.soundSpeed = orDefault(builder.soundSpeed, "1.0");
+        this.filePath = builder.filePath;
+        this.serverTypeIdx = parseInt(builder.serverTypeIdx, 0);
+        this.devVoiceUrl = orDefault(builder.devVoiceUrl, "");
+        this.vadType = orDefault(builder.vadType, "energy");
+        this.uplinkFormat = orDefault(builder.uplinkFormat, "wav");
+        this.sttStreaming = "stream".equals(builder.sttMode);
+        this.speculativeStart = "on".equals(builder.speculativeStart);
+        this.logLevel = orDefault(builder.logLevel, "info").toLowerCase(Locale.ROOT);
+    }
+
+    // 대화 답변 / TTS 출력 언어 (받기 전에는 ko)
+    public String outputLanguage() {
+        return soundLanguage.isEmpty() ? "ko" : soundLanguage;
+    }
+
+    // 한국어 / 영어 TTS 사용 (그 외는 일본어 TTS)
+    public boolean koreanTts() {
+        return "ko".equals(soundLanguage) || "en".equals(soundLanguage);
+    }
+
+    // Free(Gemini) : 대화는 conversation_stream_gemini, TTS 는 dev_voice 서버
+    public boolean freeGemini() {
+        return serverTypeIdx == 2;
+    }
+
+    public boolean devVoice() {
+        return freeGemini() && !devVoiceUrl.isEmpty();
+    }
+
+    public String ttsBaseUrl() {
+        return devVoice() ? devVoiceUrl : baseUrl;
+    }
+
+    public String conversationStreamUrl() {
+        return baseUrl + (freeGemini() ? "/conversation_stream_gemini" : "/conversation_stream");
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.baseUrl = baseUrl;
+        builder.nickname = nickname;
+        builder.playerName = playerName;
+        builder.soundLanguage = soundLanguage;
+        builder.soundVolume = rawSoundVolume;
+        builder.soundSpeed = soundSpeed;
+        builder.filePath = filePath;
+        builder.serverTypeIdx = rawServerTypeIdx;
+        builder.devVoiceUrl = devVoiceUrl;
+        builder.vadType = vadType;
+        builder.uplinkFormat = uplinkFormat;
+        builder.sttMode = sttStreaming ? "stream" : "batch";
+        builder.speculativeStart = speculativeStart ? "on" : "off";
+        builder.logLevel = logLevel;
+        return builder;
+    }
+
+    // Unity 에서 받은 문자열 그대로 설정 (null / 빈 값은 기본값)
+    public static final class Builder {
+        String baseUrl;
+        String nickname;
+        String playerName;
+        String soundLanguage;
+        String soundVolume;
+        String soundSpeed;
+        String filePath;
+        String serverTypeIdx;
+        String devVoiceUrl;
+        String vadType;
+        String uplinkFormat;
+        String sttMode;
+        String speculativeStart;
+        String logLevel;
+
+        public Builder baseUrl(String value) {
+            baseUrl = value;
+            return this;
+        }
+
+        public Builder nickname(String value) {
+            nickname = value;
+            return this;
+        }
+
+        public Builder playerName(String value) {
+            playerName = value;
+            return this;
+        }
+
+        public Builder soundLanguage(String value) {
+            soundLanguage = value;
+            return this;
+        }
+
+        public Builder soundVolume(String value) {
+            soundVolume = value;
+            return this;
+        }
+
+        public Builder soundSpeed(String value) {
+            soundSpeed = value;
+            return this;
+        }
+
+        public Builder filePath(String value) {
+            filePath = value;
+            return this;
+        }
+
+        public Builder serverTypeIdx(String value) {
+            serverTypeIdx = value;
+            return this;
+        }
+
+        public Builder devVoiceUrl(String value) {
+            devVoiceUrl = value;
+            return this;
+        }
+
+        public Builder vadType(String value) {
+            vadType = value;
+            return this;
+        }
+
+        public Builder uplinkFormat(String value) {
+            uplinkFormat = value;
+            return this;
+        }
+
+        public Builder sttMode(String value) {
+            sttMode = value;
+            return this;
+        }
+
+        public Builder speculativeStart(String value) {
+            speculativeStart = value;
+            return this;
+        }
+
+        public Builder logLevel(String value) {
+            logLevel = value;
+            return this;
+        }
+
+        public BridgeConfig build() {
+            return new BridgeConfig(this);
+        }
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null && !value.isEmpty() ? value : fallback;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    // sound_volume (0~100) -> 0.0 ~ 1.0, 잘못된 값은 100%
+    private static float parseVolume(String value) {
+        int volume = parseInt(value, 100);
+        return Math.max(0, Math.min(volume / 100f, 1.0f));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Unity 로 보내는 메시지 모아 보내기 (Android / Unity 의존 없음, 실제 전송은 Sink)
+// - 첫 메시지가 들어오면 windowMs 뒤에 한 번에 flush : 그 사이 들어온 메시지는 같은 전송에 포함
+// - postLatest : 같은 (gameObject, method) 의 아직 안 보낸 메시지를 대체 (중간 상태 / 부분 결과처럼 최신 값만 의미 있는 경우)
+// - gameObject 별로 메시지가 하나면 그대로, 여러 개면 BATCH_METHOD 한 번에 JSON 봉투로 전송
+//   {"events":[{"method":"OnSTTResult","payload":"..."}, ...]} (Unity 쪽에서 순서대로 SendMessage)
+// - 순서는 gameObject 안에서만 보장 : 한 번의 flush 는 gameObject 별로 묶어 보내므로
+//   A1, B1, A2 순서로 넣으면 A1+A2 봉투, B1 순서로 도착할 수 있음 (서로 다른 gameObject 사이의 순서에 의존하지 말 것)
+// - flush 는 한 번에 하나씩 : 예약된 flush 와 직접 호출한 flush 가 겹쳐도 먼저 꺼낸 묶음을 먼저 전송
+public class BridgeOutbox {
+    public static final String BATCH_METHOD = "OnBridgeBatch";
+
+    // 실제 전송 (UnityPlayer.UnitySendMessage 등), flush 스레드에서 호출
+    public interface Sink {
+        void send(String gameObject, String method, String payload);
+    }
+
+    private static final class Event {
+        final String method;
+        final String payload;
+        final boolean latest;
+
+        Event(String method, String payload, boolean latest) {
+            this.method = method;
+            this.payload = payload;
+            this.latest = latest;
+        }
+    }
+
+    private final Sink sink;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMs;
+
+    private final Object flushLock = new Object();  // flush 끼리 전송 순서 보장 (post 는 막지 않음)
+    private final Map<String, List<Event>> pending = new LinkedHashMap<>();  // gameObject -> 보낼 순서대로
+    private boolean scheduled = false;
+    private long posted = 0;
+    private long superseded = 0;
+    private long sent = 0;  // Sink 호출 수
+
+    public BridgeOutbox(Sink sink, ScheduledExecutorService scheduler, long windowMs) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+        this.windowMs = windowMs;
+    }
+
+    // 메시지 추가 (모두 순서대로 전달)
+    public void post(String gameObject, String method, String payload) {
+        enqueue(gameObject, new Event(method, payload, false));
+    }
+
+    // 최신 값만 전달 : 아직 안 보낸 같은 (gameObject, method) 메시지는 버림
+    public void postLatest(String gameObject, String method, String payload) {
+        enqueue(gameObject, new Event(method, payload, true));
+    }
+
+    private void enqueue(String gameObject, Event event) {
+        synchronized (this) {
+            List<Event> events = pending.get(gameObject);
+            if (events == null) {
+                events = new ArrayList<>();
+                pending.put(gameObject, events);
+            }
+            if (event.latest) {
+                for (Iterator<Event> it = events.iterator(); it.hasNext(); ) {
+                    Event old = it.next();
+                    if (old.latest && old.method.equals(event.method)) {
+                        it.remove();  // 대체된 값은 뒤로 옮겨서 최신 순서를 따름
+                        superseded++;
+                    }
+                }
+            }
+            events.add(event);
+            posted++;
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    // 모인 메시지 전송 (예약된 flush 가 호출, 종료 시 직접 호출 가능)
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, List<Event>> batch;
+            synchronized (this) {
+                scheduled = false;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+            for (Map.Entry<String, List<Event>> entry : batch.entrySet()) {
+                List<Event> events = entry.getValue();
+                if (events.size() == 1) {
+                    sink.send(entry.getKey(), events.get(0).method, events.get(0).payload);
+                } else {
+                    sink.send(entry.getKey(), BATCH_METHOD, envelope(events));
+                }
+                synchronized (this) {
+                    sent++;
+                }
+            }
+        }
+    }
+
+    // posted / superseded / sent
+    public synchronized String stats() {
+        return "posted " + posted + ", superseded " + superseded + ", sent " + sent;
+    }
+
+    static String envelope(List<Event> events) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginObject();
+            writer.name("events").beginArray();
+            for (Event event : events) {
+                writer.beginObject();
+                writer.name("method").value(event.method);
+                writer.name("payload").value(event.payload != null ? event.payload : "");
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // StringWriter 는 실패하지 않음
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// 대화(chatIdx) 단위 API 호출 관리
+// 새 대화가 시작되면 이전 대화의 STT / 대화 스트림 / TTS 호출을 취소해서
+// 응답 본문을 닫고, 읽고 있던 executor 스레드를 바로 돌려받음
+// 응답 콜백은 ServiceScheduler 레인에 chatIdx 우선순위로 넘김
+public class CallTracker {
+    private final ServiceScheduler scheduler;
+    private final Map<Integer, List<Call<?>>> calls = new HashMap<>();
+    private int latestTurn = -1;  // 가장 최근에 시작된 대화
+
+    public CallTracker(ServiceScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    // 호출 등록, 이미 지난 대화면 바로 취소하고 false
+    public boolean track(int turn, Call<?> call) {
+        synchronized (this) {
+            if (turn >= latestTurn) {
+                List<Call<?>> list = calls.get(turn);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    calls.put(turn, list);
+                }
+                list.add(call);
+                return true;
+            }
+        }
+        call.cancel();
+        return false;
+    }
+
+    // 등록 후 enqueue, 콜백은 scheduler 레인에서 실행하고 끝나면 자동으로 등록 해제
+    // 스케줄러가 콜백을 버리면 응답 본문을 닫고 onFailure 로 알림
+    public <T> void enqueue(ServiceScheduler.Lane lane, int turn, Call<T> call, Callback<T> callback) {
+        track(turn, call);
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                scheduler.submit(lane, turn, () -> {
+                    try {
+                        callback.onResponse(c, response);
+                    } finally {
+                        untrack(turn, call);
+                    }
+                }, () -> {
+                    closeQuietly(response);
+                    try {
+                        callback.onFailure(c, new IOException("Dropped by scheduler"));
+                    } finally {
+                        untrack(turn, call);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable t) {
+                Runnable failure = () -> {
+                    try {
+                        callback.onFailure(c, t);
+                    } finally {
+                        untrack(turn, call);
+                    }
+                };
+                scheduler.submit(lane, turn, failure, failure);
+            }
+        });
+    }
+
+    private static void closeQuietly(Response<?> response) {
+        Object body = response.body();
+        if (body instanceof java.io.Closeable) {
+            try {
+                ((java.io.Closeable) body).close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (response.errorBody() != null) {
+            response.errorBody().close();
+        }
+    }
+
+    // 호출 종료 (응답 처리 완료 / 실패)
+    public synchronized void untrack(int turn, Call<?> call) {
+        List<Call<?>> list = calls.get(turn);
+        if (list != null) {
+            list.remove(call);
+            if (list.isEmpty()) {
+                calls.remove(turn);
+            }
+        }
+    }
+
+    // 새 대화 시작, 이전 대화 호출은 모두 취소 (더 최신 대화가 이미 시작됐으면 false)
+    public boolean startTurn(int turn) {
+        List<Call<?>> toCancel = new ArrayList<>();
+        synchronized (this) {
+            if (turn < latestTurn) {
+                return false;
+            }
+            latestTurn = turn;
+            Iterator<Map.Entry<Integer, List<Call<?>>>> it = calls.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, List<Call<?>>> entry = it.next();
+                if (entry.getKey() < turn) {
+                    toCancel.addAll(entry.getValue());
+                    it.remove();
+                }
+            }
+        }
+        for (Call<?> call : toCancel) {
+            call.cancel();
+        }
+        scheduler.dropOlderThan(turn);
+        if (!toCancel.isEmpty()) {
+            ServiceLog.d("SERVICE API", "Cancelled " + toCancel.size() + " calls older than chatIdx " + turn);
+        }
+        return true;
+    }
+
+    public synchronized boolean isStale(int turn) {
+        return turn < latestTurn;
+    }
+
+    // 서비스 종료 시 전부 취소
+    public void cancelAll() {
+        List<Call<?>> toCancel = new ArrayList<>();
+        synchronized (this) {
+            for (List<Call<?>> list : calls.values()) {
+                toCancel.addAll(list);
+            }
+            calls.clear();
+        }
+        for (Call<?> call : toCancel) {
+            call.cancel();
+        }
+    }
+
+    // chatIdx 문자열 -> 번호 (숫자가 아니면 -1)
+    public static int parseTurn(String chatIdx) {
+        try {
+            return Integer.parseInt(chatIdx);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 대화 메모리 저장소 (요청마다 전체 이력을 읽고 다시 쓰지 않음)
+// - 기존 이력(ConversationManager JSON)은 세션 시작 시 한 번만 읽고, 최근 maxEntries 개만 메모리에 유지
+// - 새 대화는 append-only 저널(NDJSON, 한 줄에 한 항목)에 덧붙이기만 함 : 대화마다 디스크 쓰기는 항목 크기만큼
+// - 저널 항목은 대화마다 checkpoint 로 기존 이력에 옮기고 저널을 비움
+//   (옮기기 전에 프로세스가 강제 종료돼도 다음 시작 때 저널에서 다시 읽어서 잃지 않음)
+// - 요청에 넣는 memory 는 최근 항목부터 budgetChars 안에 들어가는 만큼만 (항목별 JSON 은 캐시)
+public class ConversationMemoryStore {
+
+    public static final class Entry {
+        public final String speaker;
+        public final String message;
+        public final String messageTrans;
+        final String json;  // 요청 / 저널에 쓰는 직렬화 결과
+
+        Entry(String speaker, String message, String messageTrans) {
+            this.speaker = speaker;
+            this.message = message;
+            this.messageTrans = messageTrans;
+            JsonObject object = new JsonObject();
+            object.addProperty("speaker", speaker);
+            object.addProperty("message", message);
+            object.addProperty("message_trans", messageTrans);
+            this.json = object.toString();
+        }
+
+        // 기존 이력 항목 (다른 필드도 그대로 유지)
+        Entry(JsonObject object) {
+            this.speaker = stringOrEmpty(object, "speaker");
+            this.message = stringOrEmpty(object, "message");
+            this.messageTrans = stringOrEmpty(object, "message_trans");
+            this.json = object.toString();
+        }
+    }
+
+    private final File journal;
+    private final int budgetChars;
+    private final int maxEntries;
+
+    private final List<Entry> entries = new ArrayList<>();  // 최근 maxEntries 개 (오래된 순)
+    private final List<Entry> pending = new ArrayList<>();  // 저널에 있고 아직 checkpoint 안 된 항목
+    private int trimmed = 0;  // maxEntries 를 넘어 메모리에서 뺀 항목 수 (전체 순번 = trimmed + index)
+    private String cachedMemory;
+    private int windowStart = 0;  // entries 안에서 창의 첫 항목
+
+    public ConversationMemoryStore(File journal, int budgetChars, int maxEntries) {
+        this.journal = journal;
+        this.budgetChars = budgetChars;
+        this.maxEntries = maxEntries;
+    }
+
+    // 세션 시작 : 기존 이력 JSON 배열 + 저널에 남은 항목 로드, 저널 항목 수 반환
+    public synchronized int load(String historyJson) {
+        entries.clear();
+        pending.clear();
+        trimmed = 0;
+
+        if (historyJson != null && !historyJson.isEmpty()) {
+            try {
+                JsonElement root = JsonParser.parseString(historyJson);
+                if (root.isJsonArray()) {
+                    JsonArray array = root.getAsJsonArray();
+                    int start = Math.max(0, array.size() - maxEntries);
+                    trimmed = start;
+                    for (int i = start; i < array.size(); i++) {
+                        if (array.get(i).isJsonObject()) {
+                            entries.add(new Entry(array.get(i).getAsJsonObject()));
+                        }
+                    }
+                }
+            } catch (JsonParseException | IllegalStateException e) {
+                // 깨진 이력은 무시하고 저널만 사용
+            }
+        }
+
+        if (journal.isFile()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = parseJournalLine(line);
+                    if (entry != null) {
+                        pending.add(entry);
+                        addEntry(entry);
+                    }
+                }
+            } catch (IOException ignored) {
+                // 읽은 데까지만 사용
+            }
+        }
+        cachedMemory = null;
+        return pending.size();
+    }
+
+    // 대화 항목 추가 (저널에 한 줄 덧붙임)
+    public synchronized void append(String speaker, String message, String messageTrans) throws IOException {
+        Entry entry = new Entry(speaker, message, messageTrans);
+        File dir = journal.getParentFile();
+        if (dir != null && !dir.isDirectory()) {
+            dir.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(journal, true)) {
+            out.write((entry.json + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        pending.add(entry);
+        addEntry(entry);
+        cachedMemory = null;
+    }
+
+    private void addEntry(Entry entry) {
+        entries.add(entry);
+        if (entries.size() > maxEntries) {
+            int drop = entries.size() - maxEntries;
+            entries.subList(0, drop).clear();
+            trimmed += drop;
+        }
+    }
+
+    // 요청용 memory JSON 배열 (예산 안의 최근 항목), 다음 append 까지 캐시
+    public synchronized String memoryJson() {
+        if (cachedMemory != null) {
+            return cachedMemory;
+        }
+        int used = 2;  // []
+        int start = entries.size();
+        while (start > 0) {
+            int size = entries.get(start - 1).json.length() + 1;
+            if (used + size > budgetChars && start < entries.size()) {
+                break;  // 가장 최근 항목은 예산을 넘어도 포함
+            }
+            used += size;
+            start--;
+        }
+        windowStart = start;
+
+        StringBuilder builder = new StringBuilder(used);
+        builder.append('[');
+        for (int i = start; i < entries.size(); i++) {
+            if (i > start) {
+                builder.append(',');
+            }
+            builder.append(entries.get(i).json);
+        }
+        builder.append(']');
+        cachedMemory = builder.toString();
+        return cachedMemory;
+    }
+
+    // 창의 첫 항목 (전체 순번), 이보다 앞은 요청에 들어가지 않음
+    public synchronized int windowStartIndex() {
+        memoryJson();
+        return trimmed + windowStart;
+    }
+
+    // 전체 순번 from 부터 마지막까지의 항목 JSON 배열 (세션 요청의 memory 변경분, from 은 창 안이어야 함)
+    public synchronized String entriesJson(int from) {
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (int i = Math.max(0, from - trimmed); i < entries.size(); i++) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(entries.get(i).json);
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+
+    // 아직 기존 이력에 옮기지 않은 항목
+    public synchronized List<Entry> pending() {
+        return new ArrayList<>(pending);
+    }
+
+    // pending() 앞쪽 count 개를 기존 이력에 옮긴 뒤 호출 : 그 사이 추가된 항목만 저널에 남김
+    public synchronized void checkpoint(int count) throws IOException {
+        pending.subList(0, Math.min(count, pending.size())).clear();
+        if (pending.isEmpty()) {
+            journal.delete();
+            return;
+        }
+        File temp = new File(journal.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            for (Entry entry : pending) {
+                out.write((entry.json + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (!temp.renameTo(journal)) {
+            temp.delete();
+            throw new IOException("journal rename failed");
+        }
+    }
+
+    public synchronized int size() {
+        return trimmed + entries.size();
+    }
+
+    private static Entry parseJournalLine(String line) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            JsonElement element = JsonParser.parseString(line);
+            return element.isJsonObject() ? new Entry(element.getAsJsonObject()) : null;
+        } catch (JsonParseException e) {
+            return null;  // 쓰다 만 마지막 줄
+        }
+    }
+
+    private static String stringOrEmpty(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : "";
+    }
+}
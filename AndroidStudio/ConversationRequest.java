@@ -0,0 +1,120 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+
+// conversation_stream 요청 본문 (Gson 리플렉션 없이 JsonWriter 로 직접 기록)
+// - 대화마다 바뀌지 않는 필드(캐릭터, 플레이어, 언어, 기본 옵션)는 Profile 에 한 번만 직렬화해서 그대로 이어 붙임
+// - 대화마다 바뀌는 값은 query / chatIdx / ai_language_in / memory 뿐
+// - 서버 세션(conversation_session)이 열려 있으면 고정 필드 대신 session_id 를, 전체 memory 대신 변경분만 보냄
+//   memory_start : 창의 첫 항목 전체 순번 (서버는 이보다 앞 항목을 버림)
+//   memory_from : memory_delta 첫 항목의 전체 순번 (서버는 이 순번부터 버리고 delta 를 붙임, 다시 보내도 결과가 같음)
+public final class ConversationRequest {
+    public static final MediaType JSON = MediaType.parse("application/json");
+
+    private ConversationRequest() {
+    }
+
+    // 세션 동안 고정인 프로필 (값이 바뀌면 새로 만들고 세션도 다시 엶)
+    public static final class Profile {
+        public final String character;
+        public final String player;
+        public final String aiLanguage;
+        public final String aiLanguageOut;
+        final String fields;  // 고정 필드 JSON 조각 ("k":"v",... 중괄호 없음)
+
+        public Profile(String character, String player, String aiLanguage, String aiLanguageOut) {
+            this.character = character;
+            this.player = player;
+            this.aiLanguage = aiLanguage;
+            this.aiLanguageOut = aiLanguageOut;
+            this.fields = serializeFields();
+        }
+
+        public boolean matches(String character, String player, String aiLanguage, String aiLanguageOut) {
+            return this.character.equals(character) && this.player.equals(player)
+                    && this.aiLanguage.equals(aiLanguage) && this.aiLanguageOut.equals(aiLanguageOut);
+        }
+
+        // 세션 시작 요청 본문
+        public RequestBody toRequestBody() {
+            return RequestBody.create(JSON, "{" + fields + "}");
+        }
+
+        private String serializeFields() {
+            StringWriter out = new StringWriter(512);
+            try (JsonWriter writer = new JsonWriter(out)) {
+                writer.beginObject();
+                writer.name("player").value(player);
+                writer.name("char").value(character);
+                writer.name("ai_language").value(aiLanguage);
+                writer.name("ai_language_out").value(aiLanguageOut);
+                writer.name("ai_emotion").value("off");
+                // Unity 추가 파라미터들 (기본값)
+                writer.name("api_key_Gemini").value("");
+                writer.name("api_key_OpenRouter").value("");
+                writer.name("api_key_ChatGPT").value("");
+                writer.name("guideline_list").value("[]");  // Unity UIUserCardManager 역할
+                writer.name("situation").value("{}");  // Unity UIChatSituationManager 역할
+                writer.name("intent_web").value("off");
+                writer.name("intent_image").value("off");
+                writer.name("intent_confirm").value("false");
+                writer.name("intent_confirm_type").value("");
+                writer.name("intent_confirm_answer").value("");
+                writer.name("regenerate_count").value("0");
+                writer.name("server_type").value("Auto");
+                writer.endObject();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);  // StringWriter 는 실패하지 않음
+            }
+            String object = out.toString();
+            return object.substring(1, object.length() - 1);
+        }
+    }
+
+    // 세션 없이 보내는 전체 요청 (기존 형식과 같음 : 모든 값이 문자열, memory 는 JSON 배열 문자열)
+    public static RequestBody full(Profile profile, String query, String chatIdx, String aiLanguageIn, String memoryJson) {
+        StringWriter out = new StringWriter(profile.fields.length() + query.length() + memoryJson.length() + 128);
+        out.write('{');
+        out.write(profile.fields);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginObject();
+            writer.name("query").value(query);
+            writer.name("chatIdx").value(chatIdx);
+            writer.name("ai_language_in").value(aiLanguageIn);
+            writer.name("memory").value(memoryJson);
+            writer.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        // 고정 조각 뒤에 대화별 객체의 '{' 를 ',' 로 바꿔서 이어 붙임
+        StringBuffer buffer = out.getBuffer();
+        buffer.setCharAt(profile.fields.length() + 1, ',');
+        return RequestBody.create(JSON, buffer.toString());
+    }
+
+    // 세션 요청 (memoryDelta 는 JSON 배열 그대로)
+    public static RequestBody session(String sessionId, String query, String chatIdx, String aiLanguageIn,
+                                      int memoryStart, int memoryFrom, String memoryDelta) {
+        StringWriter out = new StringWriter(query.length() + memoryDelta.length() + 160);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginObject();
+            writer.name("session_id").value(sessionId);
+            writer.name("query").value(query);
+            writer.name("chatIdx").value(chatIdx);
+            writer.name("ai_language_in").value(aiLanguageIn);
+            writer.name("memory_start").value(memoryStart);
+            writer.name("memory_from").value(memoryFrom);
+            writer.name("memory_delta").jsonValue(memoryDelta);
+            writer.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return RequestBody.create(JSON, out.toString());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonObject;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// conversation_session 으로 여는 서버 대화 세션
+// - 고정 프로필을 한 번만 보내고, 받은 session_id 로 이후 대화는 query / chatIdx / memory 변경분만 보냄
+// - 세션이 아직 없으면 acquire 가 null (그 대화는 전체 요청으로 보내고, 세션은 뒤에서 열어 둠)
+// - 서버 / 프로필이 바뀌면 새로 열고, 서버가 세션을 지원하지 않으면(404 / 405) 그 서버에는 다시 시도하지 않음
+public class ConversationSession {
+    private String baseUrl;
+    private ConversationRequest.Profile profile;
+    private String id;
+    private boolean opening = false;
+    private int generation = 0;  // 여는 요청마다 증가 (늦게 온 이전 응답 무시)
+    private String unsupportedBaseUrl;
+    private int memorySynced = -1;  // 서버 memory 에 반영된 항목 수 (전체 순번), -1 이면 아직 없음
+
+    // 이 서버 / 프로필로 열린 세션 id, 없으면 여는 요청을 보내고 null
+    public String acquire(String baseUrl, ConversationRequest.Profile profile) {
+        Call<JsonObject> call;
+        int gen;
+        synchronized (this) {
+            // 프로필 값이 같으면 서비스가 같은 객체를 재사용하므로 참조 비교
+            boolean same = baseUrl.equals(this.baseUrl) && profile == this.profile;
+            if (same && (id != null || opening)) {
+                return id;
+            }
+            if (baseUrl.equals(unsupportedBaseUrl)) {
+                return null;
+            }
+            this.baseUrl = baseUrl;
+            this.profile = profile;
+            id = null;
+            memorySynced = -1;
+            opening = true;
+            gen = ++generation;
+            call = ApiClientRegistry.get(baseUrl).openConversationSession(profile.toRequestBody());
+        }
+        call.enqueue(new Callback<JsonObject>() {
+            @Override
+            public void onResponse(Call<JsonObject> c, Response<JsonObject> response) {
+                JsonObject body = response.body();
+                String sessionId = response.isSuccessful() && body != null && body.has("session_id")
+                        && !body.get("session_id").isJsonNull() ? body.get("session_id").getAsString() : null;
+                if (!response.isSuccessful() && response.errorBody() != null) {
+                    response.errorBody().close();
+                }
+                synchronized (ConversationSession.this) {
+                    if (gen != generation) {
+                        return;
+                    }
+                    opening = false;
+                    id = sessionId;
+                    if (response.code() == 404 || response.code() == 405) {
+                        unsupportedBaseUrl = baseUrl;
+                    }
+                }
+                ServiceLog.d("SERVICE API", "Conversation session : " + (sessionId != null ? sessionId : "HTTP " + response.code()));
+            }
+
+            @Override
+            public void onFailure(Call<JsonObject> c, Throwable t) {
+                synchronized (ConversationSession.this) {
+                    if (gen == generation) {
+                        opening = false;  // 다음 대화에서 다시 시도
+                    }
+                }
+                ServiceLog.w("SERVICE API", "Conversation session open failed : " + t.getMessage());
+            }
+        });
+        return null;
+    }
+
+    // 이번 대화의 memory_from (서버에 반영된 위치, 창 밖으로 밀려났으면 창의 첫 항목)
+    public synchronized int memoryFrom(String sessionId, int windowStart) {
+        if (!sessionId.equals(id) || memorySynced < windowStart) {
+            return windowStart;
+        }
+        return memorySynced;
+    }
+
+    // 세션 요청이 받아들여짐 : upTo 항목까지 서버 memory 에 반영됨
+    public synchronized void delivered(String sessionId, int upTo) {
+        if (sessionId.equals(id)) {
+            memorySynced = Math.max(memorySynced, upTo);
+        }
+    }
+
+    // 서버가 세션을 모름 (만료 / 재시작) : 다음 acquire 에서 다시 엶
+    public synchronized void invalidate(String sessionId) {
+        if (sessionId.equals(id)) {
+            id = null;
+            memorySynced = -1;
+        }
+    }
+}
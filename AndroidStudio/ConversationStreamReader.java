@@ -0,0 +1,413 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+// 대화 스트림(/conversation_stream) NDJSON 응답을 줄 단위로 읽는 스트리밍 리더
+// - 서버는 줄마다 지금까지의 reply_list 전체를 다시 보내므로, 이미 받은 답변은 skipValue 로 건너뛰고 새 답변만 읽음
+// - 답변은 완성된 것만 listener 로 전달 : 뒤에 다음 답변이 붙었거나, 문장 부호로 끝나거나, 스트림이 끝난 경우
+//   (마지막 답변이 아직 생성 중이면 다음 줄에서 다시 읽음)
+// - Gson 트리(JsonObject)나 줄 문자열을 만들지 않고 JsonReader 로 필요한 값(chat_idx, query.text, 답변)만 꺼냄
+// - 줄 끝에서 JsonReader 입력을 끊기 때문에 잘못된 줄이 있어도 다음 줄부터 다시 읽을 수 있음
+public class ConversationStreamReader {
+
+    public static final class Reply {
+        public final String answerJp;
+        public final String answerKo;
+        public final String answerEn;
+
+        Reply(String answerJp, String answerKo, String answerEn) {
+            this.answerJp = answerJp;
+            this.answerKo = answerKo;
+            this.answerEn = answerEn;
+        }
+    }
+
+    // 완성된 답변 도착 (index : reply_list 안의 순번, 답변마다 한 번)
+    public interface Listener {
+        void onReply(String chatIdx, int index, Reply reply);
+    }
+
+    // 첫 줄을 읽음 (답변 완성 여부와 관계없이 한 번, 그 줄의 답변을 전달하기 전)
+    public interface FirstLineListener {
+        void onFirstLine(String chatIdx);
+    }
+
+    private final BufferedSource source;
+    private final Listener listener;
+    private final FirstLineListener firstLineListener;
+    private final LineReader lineReader;
+
+    private String chatIdx;
+    private String queryText;
+    private final List<Reply> replies = new ArrayList<>();  // 완성된 답변
+    private final List<Reply> lineReplies = new ArrayList<>();  // 현재 줄에서 새로 읽은 답변
+    private Reply tail;  // 아직 완성되지 않은 마지막 답변
+    private int lines = 0;
+    private boolean firstLineRead = false;
+    private int malformedLines = 0;
+    private String lastError;
+
+    public ConversationStreamReader(BufferedSource source, Listener listener) {
+        this(source, listener, null);
+    }
+
+    public ConversationStreamReader(BufferedSource source, Listener listener, FirstLineListener firstLineListener) {
+        this.source = source;
+        this.listener = listener;
+        this.firstLineListener = firstLineListener;
+        this.lineReader = new LineReader(source.buffer());
+    }
+
+    // 스트림 끝까지 읽기
+    public void readAll() throws IOException {
+        boolean more = true;
+        while (more) {
+            more = readLine();
+        }
+    }
+
+    // 한 줄 읽기, 스트림이 끝났으면 false
+    public boolean readLine() throws IOException {
+        long newline = source.indexOf((byte) '\n');
+        long lineBytes;
+        if (newline >= 0) {
+            lineBytes = newline;
+        } else {
+            // 마지막 줄 (줄바꿈 없이 끝남)
+            source.request(Long.MAX_VALUE);
+            lineBytes = source.buffer().size();
+            if (lineBytes == 0) {
+                // 스트림 끝 : 남은 답변도 완성된 것으로 처리
+                if (tail != null) {
+                    seal(tail);
+                    tail = null;
+                }
+                return false;
+            }
+        }
+
+        lineReader.limit(lineBytes);
+        if (lineBytes > 0 && !isBlank(source.buffer(), lineBytes)) {
+            lines++;
+            lineReplies.clear();
+            try {
+                JsonReader reader = new JsonReader(lineReader);
+                reader.setLenient(true);  // 기존 JsonParser 와 같은 허용 범위
+                parseLine(reader);
+                if (!firstLineRead) {
+                    firstLineRead = true;
+                    if (firstLineListener != null) {
+                        firstLineListener.onFirstLine(chatIdx);
+                    }
+                }
+                if (!lineReplies.isEmpty()) {
+                    tail = null;
+                    int last = lineReplies.size() - 1;
+                    for (int i = 0; i < last; i++) {
+                        seal(lineReplies.get(i));  // 뒤에 답변이 더 있으면 완성
+                    }
+                    Reply lastReply = lineReplies.get(last);
+                    if (isComplete(lastReply)) {
+                        seal(lastReply);
+                    } else {
+                        tail = lastReply;
+                    }
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                if (e instanceof IOException && !(e instanceof EOFException) && !(e instanceof MalformedJsonException)) {
+                    throw (IOException) e;  // 네트워크 오류
+                }
+                malformedLines++;
+                lastError = e.getMessage();
+            }
+        }
+        lineReader.skipRest();
+        if (newline >= 0) {
+            source.skip(1);  // '\n'
+        }
+        return true;
+    }
+
+    private void seal(Reply reply) {
+        replies.add(reply);
+        listener.onReply(chatIdx, replies.size() - 1, reply);
+    }
+
+    // 문장 부호로 끝나면 완성된 답변으로 봄
+    static boolean isComplete(Reply reply) {
+        return endsSentence(reply.answerJp) || endsSentence(reply.answerKo) || endsSentence(reply.answerEn);
+    }
+
+    // 닫는 괄호 / 따옴표는 바로 안쪽이 문장 끝 부호일 때만 완성 (「…」と言って 처럼 인용 뒤에 문장이 이어질 수 있음)
+    // 그 외에는 다음 답변이 붙거나 스트림이 끝날 때 완성
+    private static boolean endsSentence(String text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        boolean closed = false;
+        while (end > 0 && isClosing(text.charAt(end - 1))) {
+            end--;
+            closed = true;
+        }
+        if (end == 0) {
+            return false;
+        }
+        char last = text.charAt(end - 1);
+        return closed ? isStop(last) : isStop(last) || isTrailing(last);
+    }
+
+    // 문장 끝 부호
+    private static boolean isStop(char c) {
+        switch (c) {
+            case '.': case '!': case '?':
+            case '。': case '！': case '？':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // 말줄임 / 물결 : 답변 끝에서는 완성, 인용 안에서는 말이 이어지는 경우가 많아 제외
+    private static boolean isTrailing(char c) {
+        switch (c) {
+            case '~': case '…': case '～':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isClosing(char c) {
+        switch (c) {
+            case ')': case '）': case '」': case '』': case '"':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void parseLine(JsonReader reader) throws IOException {
+        String lineChatIdx = null;
+        String lineQuery = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "chat_idx":
+                    lineChatIdx = nextStringOrNull(reader);
+                    break;
+                case "query":
+                    lineQuery = readQueryText(reader);
+                    break;
+                case "reply_list":
+                    readReplyList(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (lineChatIdx != null) {
+            chatIdx = lineChatIdx;
+        }
+        if (lineQuery != null) {
+            queryText = lineQuery;
+        }
+    }
+
+    private String readQueryText(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String text = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("text".equals(reader.nextName())) {
+                text = nextStringOrNull(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return text;
+    }
+
+    // 완성된 답변 수만큼은 건너뛰고 나머지만 읽음
+    private void readReplyList(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        int index = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (index < replies.size()) {
+                reader.skipValue();
+            } else {
+                lineReplies.add(readReply(reader));
+            }
+            index++;
+        }
+        reader.endArray();
+    }
+
+    private static Reply readReply(JsonReader reader) throws IOException {
+        String answerJp = "";
+        String answerKo = "";
+        String answerEn = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "answer_jp":
+                    answerJp = orEmpty(nextStringOrNull(reader));
+                    break;
+                case "answer_ko":
+                    answerKo = orEmpty(nextStringOrNull(reader));
+                    break;
+                case "answer_en":
+                    answerEn = orEmpty(nextStringOrNull(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new Reply(answerJp, answerKo, answerEn);
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();  // 숫자도 문자열로
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static boolean isBlank(Buffer buffer, long length) {
+        for (long i = 0; i < length; i++) {
+            byte b = buffer.getByte(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String chatIdx() {
+        return chatIdx;
+    }
+
+    public String queryText() {
+        return queryText;
+    }
+
+    // 지금까지 완성된 답변 전체 (순서대로)
+    public List<Reply> replies() {
+        return Collections.unmodifiableList(replies);
+    }
+
+    // 내용이 있는 줄 수
+    public int lines() {
+        return lines;
+    }
+
+    public int malformedLines() {
+        return malformedLines;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    // 버퍼에 이미 들어와 있는 한 줄(limit 바이트)만 UTF-8 로 읽는 Reader (줄 끝에서 EOF)
+    // 바이트 / 디코더는 재사용해서 줄마다 새로 할당하지 않음
+    private static final class LineReader extends Reader {
+        private final Buffer buffer;
+        private final ByteBuffer bytes = ByteBuffer.allocate(4096);
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private long remaining;  // 아직 bytes 로 옮기지 않은 줄 바이트 수
+        private boolean flushed;
+
+        LineReader(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void limit(long lineBytes) {
+            remaining = lineBytes;
+            flushed = false;
+            bytes.clear();
+            bytes.flip();  // 읽기 모드, 비어 있음
+            decoder.reset();
+        }
+
+        void skipRest() throws IOException {
+            buffer.skip(remaining);
+            remaining = 0;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (flushed) {
+                return -1;  // 줄 끝
+            }
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            while (out.position() == off) {
+                if (remaining > 0 && bytes.remaining() < bytes.capacity()) {
+                    // 줄의 다음 바이트 채우기
+                    bytes.compact();
+                    int n = (int) Math.min(bytes.remaining(), remaining);
+                    n = buffer.read(bytes.array(), bytes.position(), n);
+                    bytes.position(bytes.position() + n);
+                    remaining -= n;
+                    bytes.flip();
+                }
+                boolean endOfLine = remaining == 0;
+                decoder.decode(bytes, out, endOfLine);
+                if (endOfLine && out.position() == off) {
+                    if (!flushed) {
+                        decoder.flush(out);
+                        flushed = true;
+                    }
+                    break;
+                }
+            }
+            int n = out.position() - off;
+            return n == 0 ? -1 : n;
+        }
+
+        @Override
+        public void close() {
+            // 원본 source 는 호출한 쪽에서 닫음
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.mylittlejarvisandroid;
+
+// 에너지 비율 VAD (simpleVad 의 스트리밍 버전)
+// 에너지 누적합(전체 구간 / 최근 lastSec 구간)을 유지해서 새로 들어온 샘플만 처리 (샘플당 O(1))
+// 판정식은 simpleVad 와 동일 : (최근 구간 평균 에너지) > vadThd * (전체 구간 평균 에너지)
+//
+// highPassFilter 는 제자리(in-place)로 덮어쓴 data[i - 1] 을 다시 읽기 때문에
+// 실제 결과는 y[0] = x[0], y[i] = alpha * x[i] (i >= 1) 이다.
+// 같은 판정을 내기 위해 여기서도 구간 첫 샘플만 원본, 나머지는 alpha 배로 계산한다.
+public class EnergyRatioVad implements VoiceActivityDetector {
+    private static final float FRAME_SEC = 0.5f;  // 판정 단위 (0.5초)
+    private static final int HANGOVER_FRAMES = 4;  // 유예 기간 (0.5초 * 4 = 2초)
+
+    private final int frameSamples;
+    private final int windowSamples;  // 전체 구간 (VAD_CONTEXT_SEC)
+    private final int lastSamples;  // 최근 구간 (VAD_LAST_SEC)
+    private final float vadThd;
+    private final boolean useFilter;
+    private final double alpha;
+
+    private final float[] energy;  // |샘플| 원형 버퍼
+    private long count = 0;  // 지금까지 처리한 샘플 수
+    private double totalSum = 0;
+    private double lastSum = 0;
+
+    public EnergyRatioVad(int sampleRate, float contextSec, float lastSec, float vadThd, float freqThd) {
+        this.frameSamples = (int) (sampleRate * FRAME_SEC);
+        this.windowSamples = (int) (sampleRate * contextSec);
+        this.lastSamples = (int) (sampleRate * lastSec);
+        this.vadThd = vadThd;
+        this.useFilter = freqThd > 0f;
+
+        // highPassFilter 와 같은 계수
+        float rc = 1f / (2f * (float) Math.PI * freqThd);
+        float dt = 1f / sampleRate;
+        this.alpha = dt / (rc + dt);
+
+        this.energy = new float[windowSamples];
+    }
+
+    @Override
+    public int frameSamples() {
+        return frameSamples;
+    }
+
+    @Override
+    public int hangoverSamples() {
+        return frameSamples * HANGOVER_FRAMES;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        totalSum = 0;
+        lastSum = 0;
+    }
+
+    // 새 샘플 추가 후 현재 판정 반환
+    @Override
+    public boolean process(short[] frame, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            push(Math.abs(frame[i] / 32768.0f));
+        }
+        return isActive();
+    }
+
+    private void push(float value) {
+        int idx = (int) (count % windowSamples);
+        if (idx == 0 && count > 0) {
+            resum();  // 한 바퀴마다 누적 오차 제거 (샘플당 O(1) 상각)
+        }
+        if (count >= windowSamples) {
+            totalSum -= energy[idx];
+        }
+        if (count >= lastSamples) {
+            lastSum -= energy[(int) ((count - lastSamples) % windowSamples)];
+        }
+        energy[idx] = value;
+        totalSum += value;
+        lastSum += value;
+        count++;
+    }
+
+    private void resum() {
+        int num = size();
+        double total = 0;
+        double last = 0;
+        for (int k = 0; k < num; k++) {
+            float value = energy[(int) ((count - 1 - k) % windowSamples)];
+            total += value;
+            if (k < lastSamples) {
+                last += value;
+            }
+        }
+        totalSum = total;
+        lastSum = last;
+    }
+
+    // 현재 보관 중인 샘플 수
+    public int size() {
+        return (int) Math.min(count, windowSamples);
+    }
+
+    public boolean isActive() {
+        int num = size();
+        if (lastSamples >= num) {
+            return false;
+        }
+
+        double total = totalSum;
+        double last = lastSum;
+        if (useFilter) {
+            // 구간 첫 샘플만 필터 미적용 (최근 구간에는 포함되지 않음)
+            float first = energy[(int) ((count - num) % windowSamples)];
+            total = first + alpha * (totalSum - first);
+            last = alpha * lastSum;
+        }
+
+        double totalEnergy = total / num;
+        double lastSecEnergy = last / lastSamples;
+        return lastSecEnergy > vadThd * totalEnergy;
+    }
+
+    // 기준 구현 : data 전체를 한 번에 판정 (highPassFilter 로 data 를 덮어씀)
+    public static boolean simpleVad(float[] data, int sampleRate, float lastSec, float vadThd, float freqThd) {
+        return simpleVad(data, data.length, sampleRate, lastSec, vadThd, freqThd);
+    }
+
+    // data 앞쪽 length개만 사용 (재사용 배열용)
+    public static boolean simpleVad(float[] data, int length, int sampleRate, float lastSec, float vadThd, float freqThd) {
+        int num = length;
+        int num2 = (int) (sampleRate * lastSec);
+//        Log.d("SERVICE VAD", "num : " + num + " / num2 : " + num2);
+        if (num2 >= num) {
+            return false;
+        }
+
+        if (freqThd > 0f) {
+//            Log.d("SERVICE VAD", "highPassFilter start : " + Arrays.toString(data));
+            highPassFilter(data, num, freqThd, sampleRate);
+//            Log.d("SERVICE VAD", "highPassFilter end : " + Arrays.toString(data));
+        }
+
+        float totalEnergy = 0f;
+        float lastSecEnergy = 0f;
+        for (int i = 0; i < num; i++) {
+            totalEnergy += Math.abs(data[i]);
+            if (i >= num - num2) {
+                lastSecEnergy += Math.abs(data[i]);
+            }
+        }
+
+        totalEnergy /= num;
+        lastSecEnergy /= num2;
+
+//        Log.d("SERVICE VAD", "totalEnergy : " + totalEnergy + " / lastSecEnergy : " + lastSecEnergy);
+        return lastSecEnergy > vadThd * totalEnergy;
+    }
+
+    public static void highPassFilter(float[] data, float cutoff, int sampleRate) {
+        highPassFilter(data, data.length, cutoff, sampleRate);
+    }
+
+    public static void highPassFilter(float[] data, int length, float cutoff, int sampleRate) {
+        if (length == 0) {
+            return;
+        }
+
+        float rc = 1f / (2f * (float) Math.PI * cutoff);
+        float dt = 1f / sampleRate;
+        float alpha = dt / (rc + dt);
+
+        float previous = data[0];
+        for (int i = 1; i < length; i++) {
+            previous = alpha * (previous + data[i] - data[i - 1]);
+            data[i] = previous;
+        }
+    }
+}
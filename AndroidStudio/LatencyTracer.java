@@ -0,0 +1,159 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonObject;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 대화(chatIdx) 단계별 지연 시간 측정
+// - 단계마다 처음 도달한 시각만 기록하고, 기준 단계(from)가 있으면 그 사이 시간을 단계별 히스토그램에 누적
+//   (VAD 에서 느린지, STT 업로드에서 느린지, 서버 응답 / TTS 에서 느린지 구분)
+// - 발화 시작 시점에는 chatIdx 가 없으므로 begin 으로 연 기록을 chatIdx 발급 시 bind 로 연결
+// - 최근 MAX_TRACES 개 대화만 유지, 기록은 호출한 스레드에서 바로 (잠금 구간은 배열 칸 몇 개 갱신뿐)
+public class LatencyTracer {
+    private static final int MAX_TRACES = 16;
+
+    public enum Stage {
+        VAD_START("vad_start", null),
+        VAD_END("vad_end", VAD_START),  // 발화 길이 + 유예 구간
+        AUDIO_READY("audio_ready", VAD_END),  // 녹음 구간 스냅샷 / 인코딩 준비
+        STT_RESULT("stt_result", AUDIO_READY),  // 업로드 + 인식
+        STREAM_FIRST_LINE("stream_first_line", STT_RESULT),  // 대화 스트림 첫 줄 (NDJSON)
+        STREAM_FINAL("stream_final", STREAM_FIRST_LINE),  // 대화 스트림 끝
+        TTS_REQUEST("tts_request", STREAM_FIRST_LINE),  // 첫 문장 TTS 요청
+        TTS_RESPONSE("tts_response", TTS_REQUEST),  // 첫 TTS 응답 헤더
+        PLAYBACK_START("playback_start", TTS_RESPONSE);  // 첫 음성 출력
+
+        public final String key;
+        final Stage from;
+
+        Stage(String key, Stage from) {
+            this.key = key;
+            this.from = from;
+        }
+    }
+
+    private static final class Trace {
+        final long[] times = new long[Stage.values().length];  // 단계별 도달 시각 (ns), 0 이면 아직
+    }
+
+    private final Map<Integer, Trace> traces = new LinkedHashMap<Integer, Trace>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Trace> eldest) {
+            return size() > MAX_TRACES;
+        }
+    };
+    private final Map<Stage, LatencyHistogram> stageHistograms = new EnumMap<>(Stage.class);
+    private final LatencyHistogram endToEnd = new LatencyHistogram();  // 발화 종료 -> 첫 음성 출력
+    private Trace open;  // begin 으로 시작한 현재 발화 (아직 chatIdx 없을 수 있음)
+    private boolean openBound = false;
+
+    public LatencyTracer() {
+        for (Stage stage : Stage.values()) {
+            if (stage.from != null) {
+                stageHistograms.put(stage, new LatencyHistogram());
+            }
+        }
+    }
+
+    // 발화 시작 (녹음 스레드)
+    public synchronized void begin() {
+        open = new Trace();
+        openBound = false;
+        mark(open, Stage.VAD_START, System.nanoTime());
+    }
+
+    // 현재 발화에 기록 (chatIdx 발급 전 단계)
+    public synchronized void mark(Stage stage) {
+        if (open != null) {
+            mark(open, stage, System.nanoTime());
+        }
+    }
+
+    // chatIdx 발급 : 현재 발화 기록을 연결 (이미 다른 chatIdx 에 연결됐으면 새 기록)
+    public synchronized void bind(int chatIdx) {
+        if (open != null && !openBound) {
+            traces.put(chatIdx, open);
+            openBound = true;
+        } else if (!traces.containsKey(chatIdx)) {
+            traces.put(chatIdx, new Trace());
+        }
+    }
+
+    // 대화를 새 chatIdx 로 다시 시작 (미리 시작한 대화를 버린 경우) : STT 결과 이후 단계는 지우고 다시 기록
+    public synchronized void rebind(int oldChatIdx, int newChatIdx) {
+        Trace trace = traces.remove(oldChatIdx);
+        if (trace != null) {
+            for (int i = Stage.STT_RESULT.ordinal() + 1; i < trace.times.length; i++) {
+                trace.times[i] = 0;
+            }
+            traces.put(newChatIdx, trace);
+        }
+    }
+
+    public synchronized void mark(int chatIdx, Stage stage) {
+        Trace trace = traces.get(chatIdx);
+        if (trace != null) {
+            mark(trace, stage, System.nanoTime());
+        }
+    }
+
+    public void mark(String chatIdx, Stage stage) {
+        mark(CallTracker.parseTurn(chatIdx), stage);
+    }
+
+    private void mark(Trace trace, Stage stage, long now) {
+        if (trace.times[stage.ordinal()] != 0) {
+            return;  // 처음 도달한 시각만
+        }
+        trace.times[stage.ordinal()] = now;
+        if (stage.from != null) {
+            long from = trace.times[stage.from.ordinal()];
+            if (from != 0) {
+                stageHistograms.get(stage).record((now - from) / 1_000_000);
+            }
+        }
+        if (stage == Stage.PLAYBACK_START) {
+            long vadEnd = trace.times[Stage.VAD_END.ordinal()];
+            if (vadEnd != 0) {
+                endToEnd.record((now - vadEnd) / 1_000_000);
+            }
+        }
+    }
+
+    // 단계별 통계 ({stage: {from, count, p50, p90, p99, max, mean}, end_to_end: {...}}, 단위 ms)
+    public synchronized JsonObject snapshot() {
+        JsonObject report = new JsonObject();
+        for (Map.Entry<Stage, LatencyHistogram> entry : stageHistograms.entrySet()) {
+            JsonObject stats = toJson(entry.getValue());
+            stats.addProperty("from", entry.getKey().from.key);
+            report.add(entry.getKey().key, stats);
+        }
+        JsonObject total = toJson(endToEnd);
+        total.addProperty("from", Stage.VAD_END.key);
+        total.addProperty("to", Stage.PLAYBACK_START.key);
+        report.add("end_to_end", total);
+        return report;
+    }
+
+    public synchronized void reset() {
+        for (LatencyHistogram histogram : stageHistograms.values()) {
+            histogram.reset();
+        }
+        endToEnd.reset();
+        traces.clear();
+        open = null;
+    }
+
+    private static JsonObject toJson(LatencyHistogram histogram) {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("count", histogram.count());
+        stats.addProperty("p50", histogram.percentile(50));
+        stats.addProperty("p90", histogram.percentile(90));
+        stats.addProperty("p99", histogram.percentile(99));
+        stats.addProperty("max", histogram.max());
+        stats.addProperty("mean", Math.round(histogram.mean()));
+        return stats;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// G.711 μ-law 업로드 (샘플당 8비트, WAV 포맷 태그 7) : 16kHz 기준 16KB/s, 크기 1/2
+// 순수 자바라 어느 기기에서나 동작, 음성 인식에는 음질 손실이 거의 없음
+public class MuLawUplinkEncoder implements UplinkEncoder {
+    private static final MediaType AUDIO_WAV = MediaType.parse("audio/wav");
+    private static final int FORMAT_MULAW = 7;
+    private static final int BIAS = 0x84;
+    private static final int CLIP = 8159;  // 14비트 기준
+    private static final byte[] NO_EXTRA = new byte[0];
+
+    @Override
+    public String format() {
+        return "mulaw";
+    }
+
+    @Override
+    public String fileName() {
+        return "stt.wav";
+    }
+
+    @Override
+    public RequestBody encode(PcmBufferPool.Buffer pcm, int sampleRate) {
+        return new Body(pcm, sampleRate);
+    }
+
+    // 16비트 PCM -> μ-law (G.711 참조 구현과 같은 14비트 양자화)
+    public static byte encodeSample(short pcm) {
+        int sample = pcm >> 2;
+        int mask = 0xFF;
+        if (sample < 0) {
+            sample = -sample;
+            mask = 0x7F;
+        }
+        if (sample > CLIP) {
+            sample = CLIP;
+        }
+        sample += BIAS >> 2;
+        int segment = 32 - Integer.numberOfLeadingZeros(sample >> 6);
+        if (segment >= 8) {
+            return (byte) (0x7F ^ mask);
+        }
+        return (byte) (((segment << 4) | ((sample >> (segment + 1)) & 0x0F)) ^ mask);
+    }
+
+    // μ-law -> 16비트 PCM
+    public static short decodeSample(byte mulaw) {
+        int u = ~mulaw & 0xFF;
+        int exponent = (u >> 4) & 0x07;
+        int sample = ((((u & 0x0F) << 3) + BIAS) << exponent) - BIAS;
+        return (short) ((u & 0x80) != 0 ? -sample : sample);
+    }
+
+    // 본문은 writeTo 때마다 pcm 에서 바로 변환 (재시도 시에도 같은 결과)
+    private static final class Body extends RequestBody {
+        private final PcmBufferPool.Buffer pcm;
+        private final int sampleRate;
+        private final byte[] chunk = new byte[4096];
+
+        Body(PcmBufferPool.Buffer pcm, int sampleRate) {
+            this.pcm = pcm;
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return AUDIO_WAV;
+        }
+
+        @Override
+        public long contentLength() {
+            int length = pcm.length();
+            return WavUtils.compressedHeaderSize(0) + length + (length & 1);
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            int length = pcm.length();
+            WavUtils.writeCompressedHeader(sink, FORMAT_MULAW, sampleRate, sampleRate, 1, 8, NO_EXTRA, length, length);
+
+            short[] data = pcm.data();
+            for (int i = 0; i < length; i += chunk.length) {
+                int count = Math.min(chunk.length, length - i);
+                for (int j = 0; j < count; j++) {
+                    chunk[j] = encodeSample(data[i + j]);
+                }
+                sink.write(chunk, 0, count);
+            }
+            if ((length & 1) != 0) {
+                sink.writeByte(0);  // 청크 2바이트 정렬
+            }
+        }
+    }
+}
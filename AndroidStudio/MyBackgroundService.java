@@ -1,7 +1,5 @@
 package com.example.mylittlejarvisandroid;
 
-import static com.example.mylittlejarvisandroid.Bridge.baseUrl;
-
 import android.Manifest;
 import android.app.Notification;
 import android.app.NotificationChannel;
@@ -10,57 +8,36 @@ import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.media.AudioAttributes;
 import android.media.AudioFormat;
 import android.media.AudioRecord;
-import android.media.AudioTrack;
-import android.media.MediaPlayer;
 import android.media.MediaRecorder;
 import android.os.Build;
 import android.os.IBinder;
-import android.util.Log;
 
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class MyBackgroundService extends Service {
 
@@ -68,9 +45,7 @@ public class MyBackgroundService extends Service {
 
     private static final String CHANNEL_ID = "Tikitaka Channel";
     private AudioRecord audioRecord; // Replaces AudioClip(Unity)
-    private AudioTrack audioTrack;
-    private int chatIdx = 0;  // 채팅횟수 + 현재 채팅상황
-    private String chatIdxSuccess = "-1";  // 최근 가장 성공한 채팅번호(CallConversationStream 참조)
+    private final TurnState turnState = new TurnState();  // 채팅횟수(chatIdx) + 최근 가장 성공한 채팅번호(chatIdxSuccess)
 
     // VAD Check
     private static final int SAMPLE_RATE = 16000; // 16kHz
@@ -82,20 +57,57 @@ public class MyBackgroundService extends Service {
     private static final int CONTEXT_SAMPLES = (int) (SAMPLE_RATE * VAD_CONTEXT_SEC); // 최대 30초의 샘플 개수
 
     // VAD Status
-    private boolean isRecording = false;
-    private boolean isVoiceActive = false;
-    private List<short[]> recordedAudio = new ArrayList<>();
-    private LinkedList<short[]> audioContext = new LinkedList<>(); // 최근 30초간 데이터를 저장
-    private static final int GAP_LIMIT = 4; // 유예 기간 (0.5초 * 4 = 2초)
-    private int gapCounter = 0;
-    private int outputCounter = 0;
-    private int sttRecordCounter = 0;
-    ExecutorService streamingExecutor = Executors.newFixedThreadPool(5); // 스트림 전용
-    ExecutorService apiExecutor = Executors.newFixedThreadPool(10); // 일반 API
-
-    // WAV
-    private MediaPlayer mediaPlayer;
-    private final Queue<File> audioQueue = new LinkedList<>();
+    private volatile boolean isRecording = false;  // stopRecording(메인 스레드) -> 녹음 스레드
+    private boolean isVoiceActive = false;  // 녹음 스레드 전용
+    private final AudioRingBuffer audioContext = new AudioRingBuffer(CONTEXT_SAMPLES); // 최근 30초간 데이터를 저장
+    private final AudioRingBuffer.View recordView = new AudioRingBuffer.View();  // 녹음 구간
+    private VoiceActivityDetector vad;  // Bridge.config().vadType 으로 선택 (startVAD 시점)
+    private static final int PRE_ROLL_SAMPLES = SAMPLE_RATE / 2;  // 앞 부분 잘리는거 의식해서 발화 시작 전 0.5초 포함
+    private long recordStartPos = -1;  // 녹음 시작 위치 (audioContext 절대 위치)
+    private final PcmBufferPool recordingPool = new PcmBufferPool(3, SAMPLE_RATE * 10, CONTEXT_SAMPLES); // STT 업로드용 녹음 스냅샷 (재사용)
+    private static final boolean SAVE_DEBUG_WAV = false; // 디버그용 : STT 전송 음성을 recorded_audio{n}.wav 로도 저장
+    private final UplinkEncoder wavEncoder = new WavUplinkEncoder();
+    private volatile UplinkEncoder uplinkEncoder = wavEncoder;  // Bridge.config().uplinkFormat 으로 선택 (서버가 거부하면 WAV 로 되돌림)
+    private static final int STT_CHUNK_SAMPLES = SAMPLE_RATE / 2;  // 스트리밍 STT 청크 최소 크기 (0.5초)
+    private volatile boolean sttStreaming = false;  // Bridge.config().sttStreaming (서버에 엔드포인트가 없으면 끔)
+    private SttStream sttStream;  // 진행 중인 스트리밍 STT (녹음 스레드 전용)
+    private long streamPos = -1;  // sttStream 으로 보낸 구간의 끝 (audioContext 절대 위치)
+    private volatile boolean speculativeStart = false;  // Bridge.config().speculativeStart (stream 모드에서만)
+    private final Map<Integer, String> speculativeQueries = new ConcurrentHashMap<>();  // chatIdx -> 미리 시작한 대화의 질문 (최종 결과 / 실패 / 지난 대화가 되면 삭제)
+    private int gapSamples = 0;  // 비활성 판정이 이어진 샘플 수 (vad.hangoverSamples() 이상이면 발화 종료)
+    private final ServiceScheduler scheduler = new ServiceScheduler(); // 스트림 / 일반 API 작업 (대기열 제한, 최신 대화 우선)
+    private final CallTracker callTracker = new CallTracker(scheduler); // 대화별 API 호출 (새 대화 시작 시 이전 호출 취소)
+
+    // 대화 메모리 (요청에는 최근 대화만, 대화마다 저널에 덧붙이기만 하고 서비스 종료 시 ConversationManager 로 옮김)
+    private static final int MEMORY_BUDGET_CHARS = 12000;  // 요청 memory 크기 상한 (대략 3~4천 토큰)
+    private static final int MEMORY_MAX_ENTRIES = 200;  // 메모리에 유지할 최근 항목 수
+    private ConversationMemoryStore memoryStore;
+
+    // 대화 요청 (고정 필드는 프로필로 한 번만 직렬화, 세션이 열리면 대화마다 질문 / memory 변경분만 전송)
+    private volatile ConversationRequest.Profile conversationProfile;
+    private final ConversationSession conversationSession = new ConversationSession();
+
+    // 대화 단계별 지연 시간 (프로세스 단위로 누적, Bridge.RequestLatencyReport 로 조회)
+    static final LatencyTracer latencyTracer = new LatencyTracer();
+
+    // WAV (TTS 스트리밍 재생)
+    private final WavStreamPlayer wavStreamPlayer = new WavStreamPlayer();
+
+    // TTS (답변 문장 순서 유지, 동시 합성 요청 수 제한)
+    private static final int MAX_TTS_IN_FLIGHT = 3;
+    private static final long TTS_CACHE_MEMORY_BYTES = 4L * 1024 * 1024;
+    private static final long TTS_CACHE_DISK_BYTES = 32L * 1024 * 1024;
+    private TtsCache ttsCache; // 합성된 음성 캐시 (인사말 등 자주 나오는 문장은 네트워크 없이 재생)
+    private final ReplyTracker replyTracker = new ReplyTracker(); // 답변 문장별 TTS 요청 여부 (중복 합성 방지)
+    private static final long TTS_SPOOL_BYTES = 8L * 1024 * 1024;  // 재생 대기 중인 TTS 음성 메모리 상한
+    private final AudioSpool audioSpool = new AudioSpool(TTS_SPOOL_BYTES, 10);
+    private final TtsPipeline<TtsAudioStream> ttsPipeline = new TtsPipeline<>(MAX_TTS_IN_FLIGHT,
+            this::synthesizeReply,
+            (chatIdx, seq, audioStream) -> manageAudioPlayback(chatIdx, audioStream),
+            audioStream -> {
+                audioStream.cancel();  // 받는 중이면 다운로드도 중단
+                audioStream.release();
+            });
 
 
 
@@ -103,30 +115,37 @@ public class MyBackgroundService extends Service {
     @Override
     public void onCreate() {
         super.onCreate();
-        Log.i("SERVICE", "Service created.");
+        ttsCache = new TtsCache(new File(getCacheDir(), "tts"), TTS_CACHE_MEMORY_BYTES, TTS_CACHE_DISK_BYTES);
+        scheduler.submit(scheduler.api, -1, ttsCache::warmUp, null);  // 디스크 인덱스 미리 로드 (밀려나면 첫 TTS 때 로드)
+        String memoryName = Bridge.config().nickname;
+        memoryStore = new ConversationMemoryStore(new File(getFilesDir(), "memory/conversation_journal_" + memoryName + ".ndjson"),
+                MEMORY_BUDGET_CHARS, MEMORY_MAX_ENTRIES);
+        int recovered = memoryStore.load(ConversationManager.getAllConversationMemory());  // 기존 이력은 세션마다 한 번만 읽음
+        ServiceLog.i("SERVICE", "Conversation memory loaded : " + memoryStore.size() + " entries (journal " + recovered + ")");
+        ServiceLog.i("SERVICE", "Service created.");
     }
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         try {
-            Log.i("SERVICE", "onStartCommand notification start");
+            ServiceLog.i("SERVICE", "onStartCommand notification start");
             createNotificationChannel();
             startNotification();
-            Log.i("SERVICE", "onStartCommand notification end");
+            ServiceLog.i("SERVICE", "onStartCommand notification end");
             super.onCreate();
 
-            Log.i("SERVICE", "startVAD thread call");
+            ServiceLog.i("SERVICE", "startVAD thread call");
             startVAD();
-            Log.i("SERVICE", "startVAD thread start");
+            ServiceLog.i("SERVICE", "startVAD thread start");
         } catch (Exception e) {
-            Log.e("SERVICE", "onStartCommand error" + e.getMessage());
+            ServiceLog.e("SERVICE", "onStartCommand error" + e.getMessage());
         }
 
         return START_NOT_STICKY;
     }
 
     private void setupAudioRecord() {
-        Log.i("SERVICE", "RECORD_AUDIO checking.");
+        ServiceLog.i("SERVICE", "RECORD_AUDIO checking.");
 
         int audioSource = MediaRecorder.AudioSource.MIC;
         int channelConfig = AudioFormat.CHANNEL_IN_MONO;
@@ -134,11 +153,11 @@ public class MyBackgroundService extends Service {
 
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.RECORD_AUDIO) != PackageManager.PERMISSION_GRANTED) {
             // 임시
-            Log.i("SERVICE", "setupAudioRecord no PERMISSION_GRANTED");
+            ServiceLog.i("SERVICE", "setupAudioRecord no PERMISSION_GRANTED");
             return;
         }
 
-        Log.i("SERVICE", "RECORD_AUDIO call.");
+        ServiceLog.i("SERVICE", "RECORD_AUDIO call.");
         audioRecord = new AudioRecord(
                 audioSource,
                 16000,
@@ -146,244 +165,286 @@ public class MyBackgroundService extends Service {
                 audioFormat,
                 BUFFER_SIZE
         );
-        Log.i("SERVICE", "RECORD_AUDIO start.");
-    }
-
-    private void setupAudioTrack() {
-        audioTrack = new AudioTrack.Builder()
-                .setAudioAttributes(new AudioAttributes.Builder()
-                        .setUsage(AudioAttributes.USAGE_MEDIA)
-                        .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
-                        .build())
-                .setAudioFormat(new AudioFormat.Builder()
-                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
-                        .setSampleRate(32000)  // SAMPLE_RATE 16000이 아니라 Server output 기준 적용 > 그 외에는 getSampleRate 함수 참조
-                        .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
-                        .build())
-                .setBufferSizeInBytes(BUFFER_SIZE)
-                .setTransferMode(AudioTrack.MODE_STREAM)  // 작은 WAV 파일의 경우 MODE_STATIC이 더 적합
-                .build();
+        ServiceLog.i("SERVICE", "RECORD_AUDIO start.");
     }
 
     public void startVAD() {
-        Log.d("SERVICE VAD", "startVAD start");
+        ServiceLog.d("SERVICE VAD", "startVAD start");
 
         setupAudioRecord();
-//        setupAudioTrack();
 
         if (audioRecord.getState() != AudioRecord.STATE_INITIALIZED) {
-            Log.e("SERVICE VAD", "AudioRecord initialization failed!");
+            ServiceLog.e("SERVICE VAD", "AudioRecord initialization failed!");
             return;
         }
 
         audioRecord.startRecording();
         isRecording = true;
-        recordedAudio = new ArrayList<>();
+        audioContext.clear();
+        BridgeConfig config = Bridge.config();
+        vad = createVad(config.vadType);
+        ServiceLog.d("SERVICE VAD", "VAD engine : " + vad.getClass().getSimpleName());
+        uplinkEncoder = createUplinkEncoder(config.uplinkFormat);
+        ServiceLog.d("SERVICE VAD", "STT uplink format : " + uplinkEncoder.format());
+        sttStreaming = config.sttStreaming;
+        ServiceLog.d("SERVICE VAD", "STT mode : " + (sttStreaming ? "stream" : "batch"));
+        speculativeStart = config.speculativeStart;
 
         new Thread(() -> {
-            short[] buffer = new short[BUFFER_SIZE];
-            short[] initBuffer = null;  // 앞 부분 잘리는거 의식해서 조금 추가
+            short[] buffer = new short[vad.frameSamples()];
+            long sentPos = 0;  // 마지막으로 전송한 구간의 끝 (다음 녹음은 여기보다 앞으로 가지 않음)
             while (isRecording) {
                 int read = audioRecord.read(buffer, 0, buffer.length);
                 if (read > 0) {
                     // 최근 데이터 유지 (최대 30초)
-                    manageAudioContext(buffer);
+                    long framePos = audioContext.position();
+                    manageAudioContext(buffer, read);
 
                     // VAD 감지
-                    boolean isCurrentlyActive = evaluateVad();
+                    boolean isCurrentlyActive = evaluateVad(buffer, read);
 
-                    // 저장할 wav
+                    // 저장할 wav (recordStartPos ~ 현재 위치 구간)
                     if (isCurrentlyActive) {
-                        Log.d("SERVICE VAD", "simpleVad : " + isCurrentlyActive);
-                        gapCounter = 0; // 유예 카운터 초기화
+                        if (ServiceLog.isLoggable(ServiceLog.VERBOSE)) {  // 프레임마다 호출되므로 람다 없이 레벨만 확인
+                            ServiceLog.v("SERVICE VAD", "vad : " + isCurrentlyActive);
+                        }
+                        gapSamples = 0; // 유예 카운터 초기화
                         if (!isVoiceActive) {
-                            Log.d("SERVICE VAD", "startVAD recoding start");
+                            ServiceLog.d("SERVICE VAD", "startVAD recoding start");
                             isVoiceActive = true;
-                            recordedAudio.clear(); // 새로운 녹음 세션 시작
-                            if (initBuffer != null) {
-                                recordedAudio.add(initBuffer.clone()); // 존재할 경우 앞부분 0.5초 데이터를 추가
+                            latencyTracer.begin();
+                            // 새로운 녹음 세션 시작, 앞부분 0.5초 데이터를 포함 (이미 보낸 구간은 제외)
+                            recordStartPos = Math.max(framePos - PRE_ROLL_SAMPLES, sentPos);
+                            if (sttStreaming) {
+                                sttStream = startSttStream();
+                                streamPos = recordStartPos;
                             }
                         }
-                        recordedAudio.add(buffer.clone());
                     } else if (isVoiceActive) {
-                        Log.d("SERVICE VAD", "simpleVad : " + isCurrentlyActive + "(" + gapCounter + ")");
-                        gapCounter++;
-                        recordedAudio.add(buffer.clone()); // 유예 동안 데이터를 계속 저장
-                        if (gapCounter >= GAP_LIMIT) {
+                        if (ServiceLog.isLoggable(ServiceLog.VERBOSE)) {
+                            ServiceLog.v("SERVICE VAD", "vad : " + isCurrentlyActive + "(" + gapSamples + ")");
+                        }
+                        gapSamples += read; // 유예 동안 데이터를 계속 저장
+                        if (gapSamples >= vad.hangoverSamples()) {
                             isVoiceActive = false; // 유예 기간 종료
-                            // recordedAudio의 복사본 생성하여 wav 파일 저장
-                            List<short[]> audioDataCopy = new ArrayList<>(recordedAudio);
-                            saveWavFile(audioDataCopy); // WAV 파일 저장
-
-                            List<short[]> finalBuffer = new ArrayList<>();
-                            finalBuffer.add(buffer.clone());
-                            saveWavFile(finalBuffer);
-
-                            initBuffer = null;  // 다음 저장을 위해 초기화
+                            latencyTracer.mark(LatencyTracer.Stage.VAD_END);
+                            // 녹음 구간을 메모리에서 바로 STT 전송 (30초를 넘긴 앞부분은 잘림)
+                            sentPos = audioContext.position();
+                            if (sttStream != null) {
+                                finishSttStream(audioContext.range(recordStartPos, sentPos, recordView));
+                            } else {
+                                sendRecordedAudio(audioContext.range(recordStartPos, sentPos, recordView));
+                            }
+                            recordStartPos = -1;
                         }
                     }
 
-                    // VAD 비활성 상태에서면 잘리지 않게 최신 데이터 저장
-                    if (!isCurrentlyActive) {
-                        initBuffer = buffer.clone();
+                    // 스트리밍 STT : 발화 중 새로 들어온 구간 전송 (유예 구간 포함)
+                    if (sttStream != null) {
+                        sttStream.append(audioContext.range(streamPos, audioContext.position(), recordView));
+                        streamPos = audioContext.position();
                     }
                 }
             }
         }).start();
     }
 
-    // 최근 데이터 관리 (최대 30초 유지)
-    private void manageAudioContext(short[] buffer) {
-        audioContext.add(buffer.clone());
-        int totalSamples = audioContext.size() * BUFFER_SIZE;
-        while (totalSamples > CONTEXT_SAMPLES) {
-            audioContext.removeFirst();
-            totalSamples -= BUFFER_SIZE;
-        }
+    // 최근 데이터 관리 (최대 30초 유지, 원형 버퍼라 오래된 데이터는 자동으로 덮어씀)
+    private void manageAudioContext(short[] buffer, int read) {
+        audioContext.write(buffer, 0, read);
+    }
+
+    // VAD 판단 로직 (새로 읽은 샘플만 반영)
+    private boolean evaluateVad(short[] buffer, int read) {
+        return vad.process(buffer, 0, read);
     }
 
-    // VAD 판단 로직
-    private boolean evaluateVad() {
-        // 최근 1.25초 데이터를 float[]로 추출
-        int vadSamples = (int) (SAMPLE_RATE * VAD_CONTEXT_SEC);
-        LinkedList<short[]> recentData = new LinkedList<>();
-        int totalSamples = 0;
-
-        for (int i = audioContext.size() - 1; i >= 0; i--) {
-            short[] chunk = audioContext.get(i);
-            recentData.addFirst(chunk);
-            totalSamples += chunk.length;
-            if (totalSamples >= vadSamples) break;
+    // VAD 엔진 선택 (energy : 기존 에너지 비율, zcr : 20ms 에너지 + 영교차율, spectral : 스펙트럼 변화량)
+    private static VoiceActivityDetector createVad(String type) {
+        if ("zcr".equals(type)) {
+            return new ZeroCrossingVad(SAMPLE_RATE);
+        } else if ("spectral".equals(type)) {
+            return new SpectralFluxVad(SAMPLE_RATE);
         }
+        return new EnergyRatioVad(SAMPLE_RATE, VAD_CONTEXT_SEC, VAD_LAST_SEC, VAD_THRESHOLD, VAD_FREQ_THRESHOLD);
+    }
 
-        // 데이터를 float[]로 병합
-        float[] floatData = new float[totalSamples];
-        int index = 0;
-        for (short[] chunk : recentData) {
-            for (short sample : chunk) {
-                floatData[index++] = sample / 32768.0f;
+    // STT 업로드 인코더 선택 (wav : 기본, mulaw / adpcm : 순수 자바, aac : 기기 MediaCodec, 없으면 adpcm)
+    private UplinkEncoder createUplinkEncoder(String format) {
+        if ("mulaw".equals(format)) {
+            return new MuLawUplinkEncoder();
+        } else if ("adpcm".equals(format)) {
+            return new AdpcmUplinkEncoder();
+        } else if ("aac".equals(format)) {
+            if (AacUplinkEncoder.isAvailable(SAMPLE_RATE)) {
+                return new AacUplinkEncoder();
             }
+            ServiceLog.w("SERVICE VAD", "AAC encoder not available. Using adpcm");
+            return new AdpcmUplinkEncoder();
         }
-
-        // VAD 알고리즘 실행
-        return simpleVad(floatData, SAMPLE_RATE, VAD_LAST_SEC, VAD_THRESHOLD, VAD_FREQ_THRESHOLD);
+        return wavEncoder;
     }
 
 
-    // WAV 파일 저장
-    private void saveWavFile(List<short[]> audioData) {
-        Log.d("SERVICE VAD", "saveWavFile start : " + audioData.size());
-        sttRecordCounter = (sttRecordCounter+1)%10;
-        File outputFile = new File(getExternalFilesDir(null),
-                "recorded_audio" + sttRecordCounter + ".wav");
-        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-            // WAV 헤더 작성
-            writeWavHeader(fos, audioData.size() * BUFFER_SIZE * 2);
-
-            // 오디오 데이터 작성
-            for (short[] buffer : audioData) {
-                ByteBuffer byteBuffer = ByteBuffer.allocate(buffer.length * 2);
-                byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-                for (short sample : buffer) {
-                    byteBuffer.putShort(sample);
-                }
-                fos.write(byteBuffer.array());
-            }
-
-            Log.d("SERVICE VAD", "saveWavFile end : " + sttRecordCounter + ".wav");
+    // 녹음 구간 스냅샷을 업로드 포맷으로 인코딩해서 STT 전송
+    private void sendRecordedAudio(AudioRingBuffer.View audioData) {
+        ServiceLog.d("SERVICE VAD", "sendRecordedAudio start : " + audioData.length());
+        // 업로드가 끝날 때까지 원형 버퍼가 덮어써지므로 재사용 버퍼에 스냅샷 (STT 응답 후 반납)
+        PcmBufferPool.Buffer pcm = recordingPool.acquire();
+        pcm.copyFrom(audioData);
 
-            sendWav(outputFile);
-        } catch (IOException e) {
-            Log.e("SERVICE VAD", "saveWavFile start");
-            e.printStackTrace();
+        if (SAVE_DEBUG_WAV) {
+            saveWavFile(new WavRequestBody(pcm, SAMPLE_RATE));
         }
+        latencyTracer.mark(LatencyTracer.Stage.AUDIO_READY);
+        sendRecordedAudio(pcm, uplinkEncoder);
     }
 
-    // WAV 헤더 작성
-    private void writeWavHeader(FileOutputStream fos, int totalAudioLen) throws IOException {
-        int totalDataLen = totalAudioLen + 36;
-        int byteRate = SAMPLE_RATE * 2; // 16비트 모노
-
-        byte[] header = new byte[44];
-        header[0] = 'R'; header[1] = 'I'; header[2] = 'F'; header[3] = 'F';
-        header[4] = (byte) (totalDataLen & 0xff);
-        header[5] = (byte) ((totalDataLen >> 8) & 0xff);
-        header[6] = (byte) ((totalDataLen >> 16) & 0xff);
-        header[7] = (byte) ((totalDataLen >> 24) & 0xff);
-        header[8] = 'W'; header[9] = 'A'; header[10] = 'V'; header[11] = 'E';
-        header[12] = 'f'; header[13] = 'm'; header[14] = 't'; header[15] = ' ';
-        header[16] = 16; header[17] = 0; header[18] = 0; header[19] = 0;
-        header[20] = 1; header[21] = 0; header[22] = 1; header[23] = 0;
-        header[24] = (byte) (SAMPLE_RATE & 0xff);
-        header[25] = (byte) ((SAMPLE_RATE >> 8) & 0xff);
-        header[26] = (byte) ((SAMPLE_RATE >> 16) & 0xff);
-        header[27] = (byte) ((SAMPLE_RATE >> 24) & 0xff);
-        header[28] = (byte) (byteRate & 0xff);
-        header[29] = (byte) ((byteRate >> 8) & 0xff);
-        header[30] = (byte) ((byteRate >> 16) & 0xff);
-        header[31] = (byte) ((byteRate >> 24) & 0xff);
-        header[32] = 2; header[33] = 0; header[34] = 16; header[35] = 0;
-        header[36] = 'd'; header[37] = 'a'; header[38] = 't'; header[39] = 'a';
-        header[40] = (byte) (totalAudioLen & 0xff);
-        header[41] = (byte) ((totalAudioLen >> 8) & 0xff);
-        header[42] = (byte) ((totalAudioLen >> 16) & 0xff);
-        header[43] = (byte) ((totalAudioLen >> 24) & 0xff);
-
-        fos.write(header, 0, 44);
+    private void sendRecordedAudio(PcmBufferPool.Buffer pcm, UplinkEncoder encoder) {
+        Runnable onRejected = null;
+        if (encoder != wavEncoder) {
+            // 서버가 포맷을 지원하지 않으면 (415) 이후 업로드는 WAV 로, 이번 녹음도 WAV 로 다시 전송
+            onRejected = () -> {
+                ServiceLog.w("SERVICE STT", "Uplink format rejected : " + encoder.format() + ". Falling back to wav");
+                uplinkEncoder = wavEncoder;
+                sendRecordedAudio(pcm, wavEncoder);
+            };
+        }
+        sendWav(encoder.encode(pcm, SAMPLE_RATE), encoder.format(), encoder.fileName(), pcm::release, onRejected);
     }
 
-    public static boolean simpleVad(float[] data, int sampleRate, float lastSec, float vadThd, float freqThd) {
-        int num = data.length;
-        int num2 = (int) (sampleRate * lastSec);
-//        Log.d("SERVICE VAD", "num : " + num + " / num2 : " + num2);
-        if (num2 >= num) {
-            return false;
-        }
+    // 스트리밍 STT 시작 (발화 시작 시점에 chatIdx 발급)
+    private SttStream startSttStream() {
+        int chatIdx = turnState.next();
+        latencyTracer.bind(chatIdx);
+        ServiceLog.d("SERVICE STT", "Starting STT stream - chatIdx: " + chatIdx);
+        return new SttStream(ApiClientRegistry.get(Bridge.config().baseUrl), callTracker, scheduler.api, chatIdx,
+                SAMPLE_RATE, STT_CHUNK_SAMPLES, new SttStream.Listener() {
+            @Override
+            public void onPartial(SttStream stream, String text, boolean complete) {
+                ServiceLog.d("SERVICE STT", "STT partial (chatIdx " + stream.chatIdx() + ", complete " + complete + ") : " + text);
+                if (complete && speculativeStart) {
+                    startSpeculativeConversation(stream.chatIdx(), text);
+                }
+            }
 
-        if (freqThd > 0f) {
-//            Log.d("SERVICE VAD", "highPassFilter start : " + Arrays.toString(data));
-            highPassFilter(data, freqThd, sampleRate);
-//            Log.d("SERVICE VAD", "highPassFilter end : " + Arrays.toString(data));
-        }
+            @Override
+            public void onFinal(SttStream stream, JsonObject result) {
+                stream.utterance().release();
+                handleSttResult(result);
+            }
 
-        float totalEnergy = 0f;
-        float lastSecEnergy = 0f;
-        for (int i = 0; i < num; i++) {
-            totalEnergy += Math.abs(data[i]);
-            if (i >= num - num2) {
-                lastSecEnergy += Math.abs(data[i]);
+            @Override
+            public void onFailed(SttStream stream, boolean unsupported) {
+                speculativeQueries.remove(stream.chatIdx());  // 일반 업로드는 새 chatIdx 로 가므로 이 항목은 다시 쓰이지 않음
+                if (unsupported) {
+                    ServiceLog.w("SERVICE STT", "STT stream not supported by server. Using batch upload");
+                    sttStreaming = false;
+                }
+                if (callTracker.isStale(stream.chatIdx())) {
+                    stream.utterance().release();  // 이미 새 대화가 시작됨 : 다시 올리면 새 chatIdx 로 최신 대화를 덮어씀
+                    return;
+                }
+                // 발화 전체를 일반 업로드로 다시 전송
+                sendRecordedAudio(stream.utterance(), uplinkEncoder);
             }
+        });
+    }
+
+    // 발화 전체가 반영된 partial 로 대화를 미리 시작 (finalize 결과를 기다리지 않음)
+    // 최종 결과가 같으면 그대로 진행, 다르면 handleSttResult 에서 새 chatIdx 로 다시 시작
+    private void startSpeculativeConversation(int chatIdx, String text) {
+        if (text == null || text.trim().isEmpty() || !callTracker.startTurn(chatIdx)) {
+            return;
         }
+        ServiceLog.d("SERVICE STT", "Speculative conversation start - chatIdx: " + chatIdx + ", Text: " + text);
+        speculativeQueries.put(chatIdx, text);
+        callConversationStream(text, String.valueOf(chatIdx));
+        ResetAudio();
+    }
 
-        totalEnergy /= num;
-        lastSecEnergy /= num2;
+    // 미리 시작한 대화를 버리고 새 chatIdx 발급 (그 사이 새 발화가 있었으면 null)
+    // 새 chatIdx 로 startTurn / advance 하면 이전 대화의 스트림 / TTS 호출은 취소되고,
+    // 이미 받은 답변 / 음성은 processReply 와 TTS Chat-Idx 확인에서 걸러짐
+    private String discardSpeculation(int chatIdx) {
+        int reissued = turnState.nextAfter(chatIdx);
+        if (reissued < 0) {
+            ServiceLog.d("SERVICE STT", "Speculation superseded by newer utterance : " + chatIdx);
+            return null;
+        }
+        callTracker.startTurn(reissued);
+        latencyTracer.rebind(chatIdx, reissued);
+        turnState.advance(reissued);
+        ResetAudio();
+        return String.valueOf(reissued);
+    }
 
-//        Log.d("SERVICE VAD", "totalEnergy : " + totalEnergy + " / lastSecEnergy : " + lastSecEnergy);
-        return lastSecEnergy > vadThd * totalEnergy;
+    // 부분 / 최종 인식 결과 비교 (공백, 끝 문장 부호, 대소문자 차이는 무시)
+    private static boolean sameTranscript(String a, String b) {
+        return normalizeTranscript(a).equals(normalizeTranscript(b));
     }
 
-    public static void highPassFilter(float[] data, float cutoff, int sampleRate) {
-        if (data.length == 0) {
-            return;
-        }
+    private static String normalizeTranscript(String text) {
+        return text.trim().replaceAll("\\s+", " ").replaceAll("[\\p{Punct}。、！？…～\\s]+$", "").toLowerCase(Locale.ROOT);
+    }
 
-        float rc = 1f / (2f * (float) Math.PI * cutoff);
-        float dt = 1f / sampleRate;
-        float alpha = dt / (rc + dt);
+    // 스트리밍 STT 종료 : 남은 구간을 보내고 finalize (실패 대비 발화 전체 스냅샷을 같이 넘김)
+    private void finishSttStream(AudioRingBuffer.View audioData) {
+        PcmBufferPool.Buffer pcm = recordingPool.acquire();
+        pcm.copyFrom(audioData);  // audioData 도 recordView 라서 먼저 복사
+
+        SttStream stream = sttStream;
+        sttStream = null;
+        stream.append(audioContext.range(streamPos, audioContext.position(), recordView));
+        streamPos = -1;
+        latencyTracer.mark(LatencyTracer.Stage.AUDIO_READY);
+        stream.finish(pcm);
+    }
 
-        float previous = data[0];
-        for (int i = 1; i < data.length; i++) {
-            previous = alpha * (previous + data[i] - data[i - 1]);
-            data[i] = previous;
+    // WAV 파일 저장 (디버그용)
+    private void saveWavFile(WavRequestBody wavBody) {
+        int slot = audioSpool.nextDebugSlot();
+        File outputFile = new File(getExternalFilesDir(null),
+                "recorded_audio" + slot + ".wav");
+        try (BufferedSink sink = Okio.buffer(Okio.sink(outputFile))) {
+            wavBody.writeTo(sink);
+            ServiceLog.d("SERVICE VAD", "saveWavFile end : " + slot + ".wav");
+        } catch (IOException e) {
+            ServiceLog.e("SERVICE VAD", "saveWavFile error", e);
         }
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
+        if (ttsCache != null) {
+            ServiceLog.i("SERVICE", "TTS cache : " + ttsCache.stats());
+        }
+        ServiceLog.i("SERVICE", "TTS spool : " + audioSpool.stats());
+        checkpointMemory();
         stopRecording();
+        callTracker.cancelAll();
+        scheduler.shutdown();
         stopForeground(true);  // 알림 초기화
-        Log.i("SERVICE", "Service destroyed.");
+        ServiceLog.i("SERVICE", "Service destroyed.");
+    }
+
+    // 저널 항목을 ConversationManager 이력으로 옮기고 저널 정리 (유니티 채팅 이력과 동기화, 대화마다 + 서비스 종료 시)
+    // 대화 완료와 onDestroy 가 겹쳐도 같은 항목을 두 번 옮기지 않게 synchronized
+    private synchronized void checkpointMemory() {
+        if (memoryStore == null) {
+            return;
+        }
+        List<ConversationMemoryStore.Entry> pending = memoryStore.pending();
+        for (ConversationMemoryStore.Entry entry : pending) {
+            ConversationManager.saveConversationMemory(entry.speaker, entry.message, entry.messageTrans);
+        }
+        try {
+            memoryStore.checkpoint(pending.size());
+            ServiceLog.d("SERVICE", "Conversation memory checkpoint : " + pending.size() + " entries");
+        } catch (IOException e) {
+            ServiceLog.e("SERVICE", "Conversation memory checkpoint error : " + e.getMessage());
+        }
     }
 
     private void stopRecording() {
@@ -393,10 +454,7 @@ public class MyBackgroundService extends Service {
             audioRecord.release();
             audioRecord = null;
         }
-        if (audioTrack != null) {
-            audioTrack.release();
-            audioTrack = null;
-        }
+        wavStreamPlayer.release();
     }
 
     @Override
@@ -404,17 +462,6 @@ public class MyBackgroundService extends Service {
         return null;
     }
 
-    // 유니티로 메시지 전송
-    private void UnitySendMessage(String gameObject, String methodName, String param) {
-        try {
-            Log.i("SERVICE", "[Android] ["+methodName+"] send start");
-            com.unity3d.player.UnityPlayer.UnitySendMessage(gameObject, methodName, param);
-            Log.i("SERVICE", "[Android] ["+methodName+"] send end");
-        } catch (Exception e) {
-            Log.e("SERVICE", "[Android] 유니티 메시지 전송 오류: " + e.getMessage());
-        }
-    }
-
     private void createNotificationChannel() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             final NotificationChannel notificationChannel = new NotificationChannel(
@@ -452,122 +499,134 @@ public class MyBackgroundService extends Service {
         startForeground(112, notification);  // SERVICE_NOTIFICATION_ID : 112
     }
 
-    private void playWav(String fileName) {
-        Log.d("SERVICE", "playWav Start : " + fileName);
-        File file = new File(getExternalFilesDir(null), fileName);
-
+    // STT 송신 (파일)
+    public void sendWav(File file) {
         if (!file.exists()) {
-            Log.e("SERVICE", "WAV file not found: " + file.getAbsolutePath());
+            ServiceLog.e("SERVICE", "File not found: " + file.getAbsolutePath());
             return;
         }
-
-//        Log.d("SERVICE", "playWav File Info sampleRate : " + getSampleRate(file));
-        try (FileInputStream inputStream = new FileInputStream(file)) {
-            // WAV 헤더 스킵 (44바이트)
-            inputStream.skip(44);
-
-            audioTrack.play();
-            Log.d("SERVICE", "AudioTrack playing: " + fileName);
-
-            // PCM 데이터를 읽어 재생
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                audioTrack.write(buffer, 0, bytesRead);
-            }
-
-            Log.d("SERVICE", "Audio playback completed: " + fileName);
-        } catch (IOException e) {
-            Log.e("SERVICE", "Error playing WAV: " + e.getMessage());
-        }
+        sendWav(RequestBody.create(MediaType.parse("audio/wav"), file), "wav", "stt.wav", null, null);
     }
 
     // STT 송신 (Unity VADController.SendWavFile 로직 기반)
-    public void sendWav(File file) {
-        if (!file.exists()) {
-            Log.e("SERVICE", "File not found: " + file.getAbsolutePath());
-            return;
-        }
-
+    // format : "format" 파트 값 (wav, mulaw, adpcm, aac)
+    // onDone : 업로드 응답 / 실패 후 호출 (녹음 버퍼 반납 등)
+    // onRejected : 서버가 포맷을 지원하지 않을 때(415) onDone 대신 호출
+    public void sendWav(RequestBody requestFile, String format, String fileName, Runnable onDone, Runnable onRejected) {
         // Unity 로직: chatIdx 증가 및 regenerateCount 초기화
-        chatIdx = chatIdx + 1;
+        int chatIdx = turnState.next();
+        latencyTracer.bind(chatIdx);
         
         // Unity 로직: server_type_idx 체크 (Android에서는 내부 Whisper 없으므로 외부 서버 사용)
-        String serverTypeIdx = Bridge.server_type_idx != null ? Bridge.server_type_idx : "0";
-        if ("2".equals(serverTypeIdx)) {
-            Log.d("SERVICE STT", "Note: Unity uses internal Whisper for server_type_idx=2, but Android sends to external server");
+        BridgeConfig config = Bridge.config();
+        if (config.freeGemini()) {
+            ServiceLog.d("SERVICE STT", "Note: Unity uses internal Whisper for server_type_idx=2, but Android sends to external server");
         }
         
-        Log.d("SERVICE STT", "Starting STT request - chatIdx: " + chatIdx + ", server_type_idx: " + serverTypeIdx);
+        ServiceLog.d("SERVICE STT", "Starting STT request - chatIdx: " + chatIdx + ", server_type_idx: " + config.serverTypeIdx);
 
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(baseUrl)
-                .addConverterFactory(GsonConverterFactory.create())
-                .callbackExecutor(apiExecutor)
-                .build();
-        ApiService apiService = retrofit.create(ApiService.class);
+        ApiService apiService = ApiClientRegistry.get(config.baseUrl);
 
         // Unity와 동일한 파라미터 구성
-        RequestBody requestFile = RequestBody.create(MediaType.parse("audio/wav"), file);
-        MultipartBody.Part filePart = MultipartBody.Part.createFormData("file", "stt.wav", requestFile);
+        MultipartBody.Part filePart = MultipartBody.Part.createFormData("file", fileName, requestFile);
 
         RequestBody lang = RequestBody.create(MediaType.parse("text/plain"), "ko");
         RequestBody level = RequestBody.create(MediaType.parse("text/plain"), "small");
         RequestBody chatIdxStr = RequestBody.create(MediaType.parse("text/plain"), String.valueOf(chatIdx));
+        RequestBody formatStr = RequestBody.create(MediaType.parse("text/plain"), format);
 
         // API 호출
-        Call<JsonObject> call = apiService.uploadAudio(filePart, lang, level, chatIdxStr);
-        call.enqueue(new Callback<JsonObject>() {
+        Call<JsonObject> call = apiService.uploadAudio(filePart, lang, level, chatIdxStr, formatStr);
+        callTracker.enqueue(scheduler.api, chatIdx, call, new Callback<JsonObject>() {
             @Override
             public void onResponse(Call<JsonObject> call, Response<JsonObject> response) {
+                if (response.code() == 415 && onRejected != null) {
+                    if (response.errorBody() != null) {
+                        response.errorBody().close();  // 공용 클라이언트 연결 반납
+                    }
+                    onRejected.run();
+                    return;
+                }
+                if (onDone != null) {
+                    onDone.run();
+                }
                 if (response.isSuccessful()) {
                     JsonObject jsonResponse = response.body();
                     if (jsonResponse != null) {
-                        try {
-                            String transText = jsonResponse.get("text").getAsString();
-                            String transLang = jsonResponse.get("lang").getAsString();
-                            String responseChatIdx = jsonResponse.get("chatIdx").getAsString();
-
-                            Log.d("SERVICE STT", "STT Success - Text: " + transText + ", Lang: " + transLang + ", ChatIdx: " + responseChatIdx);
-
-                            // Unity 로직: 빈 결과 체크
-                            if (transText == null || transText.trim().isEmpty()) {
-                                Log.w("SERVICE STT", "STT result is empty. Skipping response processing.");
-                                return;
-                            }
-
-                            // Unity 스타일 알림 업데이트 (Unity의 NoticeBalloonManager 역할)
-                            UnitySendMessage("GameManager", "OnSTTResult", transText);
-
-                            // 대화 스트림 시작
-                            callConversationStream(transText, responseChatIdx);
-
-                            // 기존 음성 중지 및 초기화
-                            ResetAudio();
-
-                        } catch (Exception e) {
-                            Log.e("SERVICE STT", "Error parsing STT response: " + e.getMessage());
-                        }
+                        handleSttResult(jsonResponse);
                     }
                 } else {
-                    Log.e("SERVICE STT", "STT request failed. Response Code: " + response.code());
-                    try {
-                        String errorBody = response.errorBody() != null ? response.errorBody().string() : "No error details";
-                        Log.e("SERVICE STT", "Error details: " + errorBody);
+                    ServiceLog.e("SERVICE STT", "STT request failed. Response Code: " + response.code());
+                    try (ResponseBody errorBody = response.errorBody()) {
+                        String details = errorBody != null ? errorBody.string() : "No error details";
+                        ServiceLog.e("SERVICE STT", "Error details: " + details);
                     } catch (Exception e) {
-                        Log.e("SERVICE STT", "Error reading error body: " + e.getMessage());
+                        ServiceLog.e("SERVICE STT", "Error reading error body: " + e.getMessage());
                     }
                 }
             }
 
             @Override
             public void onFailure(Call<JsonObject> call, Throwable t) {
-                Log.e("SERVICE STT", "STT request failed: " + t.getMessage());
-                t.printStackTrace();
+                if (onDone != null) {
+                    onDone.run();
+                }
+                ServiceLog.e("SERVICE STT", "STT request failed: " + t.getMessage(), t);
             }
         });
     }
 
+    // STT 결과 처리 (일반 업로드 / 스트리밍 finalize 공통, 응답 : {text, lang, chatIdx})
+    private void handleSttResult(JsonObject jsonResponse) {
+        try {
+            String transText = jsonResponse.get("text").getAsString();
+            String transLang = jsonResponse.get("lang").getAsString();
+            String responseChatIdx = jsonResponse.get("chatIdx").getAsString();
+            latencyTracer.mark(responseChatIdx, LatencyTracer.Stage.STT_RESULT);
+
+            ServiceLog.d("SERVICE STT", "STT Success - Text: " + transText + ", Lang: " + transLang + ", ChatIdx: " + responseChatIdx);
+
+            // 미리 시작한 대화가 있으면 : 같은 질문이면 확정, 다르면 취소 후 새 chatIdx 로 다시 시작
+            String speculated = speculativeQueries.remove(CallTracker.parseTurn(responseChatIdx));
+            if (speculated != null) {
+                if (transText != null && sameTranscript(speculated, transText)) {
+                    ServiceLog.d("SERVICE STT", "Speculation committed - chatIdx: " + responseChatIdx);
+                    Bridge.UnitySendMessage("GameManager", "OnSTTResult", transText);
+                    return;
+                }
+                ServiceLog.d("SERVICE STT", "Speculation diverged : " + speculated + " -> " + transText);
+                responseChatIdx = discardSpeculation(CallTracker.parseTurn(responseChatIdx));
+                if (responseChatIdx == null) {
+                    return;
+                }
+            }
+
+            // Unity 로직: 빈 결과 체크
+            if (transText == null || transText.trim().isEmpty()) {
+                ServiceLog.w("SERVICE STT", "STT result is empty. Skipping response processing.");
+                return;
+            }
+
+            // 새 대화 시작 : 이전 대화의 스트림 / TTS 호출 취소 (이미 더 최신 대화가 있으면 무시)
+            if (!callTracker.startTurn(CallTracker.parseTurn(responseChatIdx))) {
+                ServiceLog.d("SERVICE STT", "STT result too old. Skipping : " + responseChatIdx);
+                return;
+            }
+
+            // Unity 스타일 알림 업데이트 (Unity의 NoticeBalloonManager 역할)
+            Bridge.UnitySendMessage("GameManager", "OnSTTResult", transText);
+
+            // 대화 스트림 시작
+            callConversationStream(transText, responseChatIdx);
+
+            // 기존 음성 중지 및 초기화
+            ResetAudio();
+
+        } catch (Exception e) {
+            ServiceLog.e("SERVICE STT", "Error parsing STT response: " + e.getMessage());
+        }
+    }
+
     public void callConversationStream(String query, String chatIdx) {
         callConversationStream(query, chatIdx, "");
     }
@@ -577,484 +636,394 @@ public class MyBackgroundService extends Service {
         
         // Unity 로직: chatIdxSuccess 업데이트
         if (!"-1".equals(chatIdx)) {
-            chatIdxSuccess = chatIdx;
-            Log.d("SERVICE API", "Updated chatIdxSuccess: " + chatIdxSuccess);
+            turnState.advance(chatIdx);
+            ServiceLog.d("SERVICE API", "Updated chatIdxSuccess: " + turnState.success());
         }
 
-        // Unity 로직: server_type_idx 분기 처리
-        String serverTypeIdx = Bridge.server_type_idx != null ? Bridge.server_type_idx : "0";
-        
-        String streamUrl;
-        if ("2".equals(serverTypeIdx)) {
-            // server_type_idx == 2 (Free Gemini): conversation_stream_gemini 사용
-            streamUrl = baseUrl + "/conversation_stream_gemini";
-            Log.d("SERVICE API", "Using Gemini conversation stream (server_type_idx=2)");
+        // Unity 로직: server_type_idx 분기 처리 (2 : conversation_stream_gemini, 그 외 : conversation_stream)
+        BridgeConfig config = Bridge.config();
+        String streamUrl = config.conversationStreamUrl();
+        if (config.freeGemini()) {
+            ServiceLog.d("SERVICE API", "Using Gemini conversation stream (server_type_idx=2)");
         } else {
-            // 기본: conversation_stream 사용
-            streamUrl = baseUrl + "/conversation_stream";
-            Log.d("SERVICE API", "Using default conversation stream (server_type_idx=" + serverTypeIdx + ")");
+            ServiceLog.d("SERVICE API", "Using default conversation stream (server_type_idx=" + config.serverTypeIdx + ")");
         }
-        Log.d("SERVICE API", "Starting conversation stream - URL: " + streamUrl);
+        ServiceLog.d("SERVICE API", "Starting conversation stream - URL: " + streamUrl);
 
         // Unity와 동일한 파라미터 구성
-        String nickname = Bridge.nickname != null ? Bridge.nickname : "arona";
-        String playerName = Bridge.player_name != null ? Bridge.player_name : "sensei";
+        String nickname = config.nickname;
+        String playerName = config.playerName;
         String aiLanguage = "";  // 추론 언어 설정
-        String aiLanguageIn = aiLangIn;  // STT에서 감지된 언어
-        String aiLanguageOut = Bridge.sound_language != null ? Bridge.sound_language : "ko";  // TTS 출력 언어
-
-        // Unity 스타일 메모리 가져오기
-        String memoryJson = ConversationManager.getAllConversationMemory();
-        Log.d("SERVICE API", "Memory loaded: " + (memoryJson != null ? memoryJson.length() + " chars" : "null"));
-
-        // Unity 스타일 요청 데이터 구성
-        Map<String, String> requestData = new HashMap<>();
-        requestData.put("query", query);
-        requestData.put("player", playerName);
-        requestData.put("char", nickname);
-        requestData.put("ai_language", aiLanguage);
-        requestData.put("ai_language_in", aiLanguageIn);
-        requestData.put("ai_language_out", aiLanguageOut);
-        requestData.put("ai_emotion", "off");
-        requestData.put("memory", memoryJson);
-        requestData.put("chatIdx", chatIdx);
-        
-        // Unity 추가 파라미터들 (기본값으로 설정)
-        requestData.put("api_key_Gemini", "");
-        requestData.put("api_key_OpenRouter", "");
-        requestData.put("api_key_ChatGPT", "");
-        requestData.put("guideline_list", "[]");  // Unity UIUserCardManager 역할
-        requestData.put("situation", "{}");  // Unity UIChatSituationManager 역할
-        requestData.put("intent_web", "off");  // 웹 검색 설정
-        requestData.put("intent_image", "off");  // 이미지 생성 설정
-        requestData.put("intent_confirm", "false");  // 의도 확인 설정
-        requestData.put("intent_confirm_type", "");
-        requestData.put("intent_confirm_answer", "");
-        requestData.put("regenerate_count", "0");  // Unity 재생성 카운트
-        requestData.put("server_type", "Auto");
-
-        Log.d("SERVICE API", "Request data prepared - Query: " + query + ", ChatIdx: " + chatIdx);
-
-        fetchStreamingData(streamUrl, requestData);
+        String aiLanguageIn = aiLangIn != null ? aiLangIn : "";  // STT에서 감지된 언어
+        String aiLanguageOut = config.outputLanguage();  // TTS 출력 언어
+
+        // 고정 필드는 값이 바뀔 때만 다시 직렬화
+        ConversationRequest.Profile profile = conversationProfile;
+        if (profile == null || !profile.matches(nickname, playerName, aiLanguage, aiLanguageOut)) {
+            profile = new ConversationRequest.Profile(nickname, playerName, aiLanguage, aiLanguageOut);
+            conversationProfile = profile;
+        }
+
+        // 세션이 열려 있으면 질문 / memory 변경분만, 아니면 전체 요청
+        String sessionId = conversationSession.acquire(config.baseUrl, profile);
+        RequestBody requestBody;
+        int memoryUpTo = memoryStore.size();
+        if (sessionId != null) {
+            int memoryStart = memoryStore.windowStartIndex();
+            int memoryFrom = conversationSession.memoryFrom(sessionId, memoryStart);
+            String memoryDelta = memoryStore.entriesJson(memoryFrom);
+            ServiceLog.d("SERVICE API", "Session request (" + sessionId + ") - memory delta: " + memoryDelta.length() + " chars (from entry " + memoryFrom + "/" + memoryUpTo + ")");
+            requestBody = ConversationRequest.session(sessionId, query, chatIdx, aiLanguageIn, memoryStart, memoryFrom, memoryDelta);
+        } else {
+            // 최근 대화 메모리 (예산 안의 최근 항목만, 다음 대화 저장 전까지 캐시)
+            String memoryJson = memoryStore.memoryJson();
+            ServiceLog.d("SERVICE API", () -> "Memory loaded: " + memoryJson.length() + " chars (from entry " + memoryStore.windowStartIndex() + "/" + memoryUpTo + ")");
+            requestBody = ConversationRequest.full(profile, query, chatIdx, aiLanguageIn, memoryJson);
+        }
+
+        ServiceLog.d("SERVICE API", "Request data prepared - Query: " + query + ", ChatIdx: " + chatIdx);
+
+        fetchStreamingData(config.baseUrl, streamUrl, chatIdx, requestBody, sessionId, memoryUpTo,
+                () -> callConversationStream(query, chatIdx, aiLangIn));
     }
 
-    public void fetchStreamingData(String url, Map<String, String> data) {
-        String jsonData = new Gson().toJson(data);
-        String curChatIdx = data.get("chatIdx");
+    // baseUrl : 요청을 만들 때 읽은 설정의 서버 (중간에 설정이 바뀌어도 같은 서버로)
+    // sessionId 가 있으면 세션 요청 : 성공하면 memoryUpTo 까지 서버에 반영된 것으로 기록
+    // 서버가 세션을 모르면(404 / 410) 세션을 버리고 resend 로 같은 대화를 전체 요청으로 다시 보냄
+    public void fetchStreamingData(String baseUrl, String url, String curChatIdx, RequestBody requestBody,
+                                   String sessionId, int memoryUpTo, Runnable resend) {
         // 공용변수 최신화
         if(!"-1".equals(curChatIdx)) {
-            chatIdxSuccess = curChatIdx;
+            turnState.advance(curChatIdx);
         }
 
-        OkHttpClient client = new OkHttpClient.Builder()
-                .connectTimeout(100, TimeUnit.SECONDS)
-                .readTimeout(100,TimeUnit.SECONDS).build();
-
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(baseUrl)
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .callbackExecutor(streamingExecutor)
-                .build();
-
-        ApiService apiService = retrofit.create(ApiService.class);
+        ApiService apiService = ApiClientRegistry.getStreaming(baseUrl);
 
-        RequestBody requestBody = RequestBody.create(MediaType.parse("application/json"), jsonData);
-        Call<ResponseBody> call = apiService.streamConversation(requestBody);
+        Call<ResponseBody> call = apiService.streamConversation(url, requestBody);
 
-        call.enqueue(new Callback<ResponseBody>() {
+        callTracker.enqueue(scheduler.streaming, CallTracker.parseTurn(curChatIdx), call, new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (sessionId != null && (response.code() == 404 || response.code() == 410)) {
+                    response.errorBody().close();
+                    ServiceLog.w("SERVICE API", "Conversation session expired : " + sessionId + ", resending full request");
+                    conversationSession.invalidate(sessionId);
+                    resend.run();
+                    return;
+                }
                 if (response.isSuccessful()) {
-                    JsonObject lastJsonObject = null;
-
-                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body().byteStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            Log.d("SERVICE API","line : " + line);
-                            if (!line.isEmpty()) {
-                                try {
-                                    JsonParser parser = new JsonParser();
-                                    JsonObject jsonObject = parser.parse(line).getAsJsonObject();
-
-                                    // 최신 대화 처리 로직 미반영
-                                    processReply(jsonObject);
-
-                                    // lastJsonObject 갱신
-                                    lastJsonObject = jsonObject;
-                                } catch (JsonSyntaxException e) {
-                                    Log.e("SERVICE API","JSON decode error: " + e.getMessage());
-                                }
-                            }
+                    if (sessionId != null) {
+                        conversationSession.delivered(sessionId, memoryUpTo);
+                    }
+                    // 줄마다 새로 추가된 답변만 processReply 로 전달 (이미 받은 답변은 다시 파싱하지 않음)
+                    try (ResponseBody body = response.body()) {
+                        ConversationStreamReader reader = new ConversationStreamReader(body.source(),
+                                (chatIdx, index, reply) -> processReply(chatIdx, index, reply),
+                                chatIdx -> {
+                                    // 첫 줄 도착 시각 (이미 지난 대화는 히스토그램에 넣지 않음)
+                                    if (turnState.isCurrent(curChatIdx)) {
+                                        latencyTracer.mark(curChatIdx, LatencyTracer.Stage.STREAM_FIRST_LINE);
+                                    }
+                                });
+                        reader.readAll();
+                        latencyTracer.mark(curChatIdx, LatencyTracer.Stage.STREAM_FINAL);
+                        if (reader.malformedLines() > 0) {
+                            ServiceLog.e("SERVICE API", "JSON decode error (" + reader.malformedLines() + " lines): " + reader.lastError());
                         }
 
                         // OnFinalResponseReceived 호출
-                        OnFinalResponseReceived(lastJsonObject);
+                        OnFinalResponseReceived(reader);
 
                     } catch (IOException e) {
-                        e.printStackTrace();
+                        if (call.isCanceled()) {
+                            ServiceLog.d("SERVICE API", "Conversation stream cancelled : " + curChatIdx);
+                        } else {
+                            ServiceLog.e("SERVICE API", "Conversation stream read error", e);
+                        }
                     }
                 } else {
-                    System.err.println("Request failed. Response Code: " + response.code());
+                    ServiceLog.e("SERVICE API", "Conversation stream request failed. Response Code: " + response.code());
                 }
             }
 
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
-                t.printStackTrace();
+                ServiceLog.e("SERVICE API", "Conversation stream request failed", t);
             }
         });
     }
 
     // 최후의 대화를 save
-    private void OnFinalResponseReceived(JsonObject lastJsonObject) {
-        if (lastJsonObject == null) return;
-        Log.d("SERVICE API", "OnFinalResponseReceived start.");
+    private void OnFinalResponseReceived(ConversationStreamReader reader) {
+        if (reader.lines() == 0 || reader.queryText() == null) return;
+        ServiceLog.d("SERVICE API", "OnFinalResponseReceived start.");
 
 
-        String query_trans = lastJsonObject.getAsJsonObject("query").get("text").getAsString();
+        String query_trans = reader.queryText();
 
         List<String> replyListEn = new ArrayList<>();  // 저장용 대화
-        JsonArray replyArray = lastJsonObject.getAsJsonArray("reply_list");
-        for (JsonElement replyElement : replyArray) {
-            JsonObject reply = replyElement.getAsJsonObject();
-            String answerEn = reply.has("answer_en") ? reply.get("answer_en").getAsString() : "";
-            replyListEn.add(answerEn);
+        for (ConversationStreamReader.Reply reply : reader.replies()) {
+            replyListEn.add(reply.answerEn);
         }
         String replyEn = String.join(" ", replyListEn);
         
-        // 대화 내용 저장
-        ConversationManager.saveConversationMemory("player", query_trans, query_trans);
-        ConversationManager.saveConversationMemory("character", replyEn, replyEn);
+        // 대화 내용 저장 (저널에 먼저 덧붙이고 이력으로 옮김, 옮기다 강제 종료되면 다음 시작 때 저널에서 복구)
+        try {
+            memoryStore.append("player", query_trans, query_trans);
+            memoryStore.append("character", replyEn, replyEn);
+        } catch (IOException e) {
+            ServiceLog.e("SERVICE API", "Conversation memory save error : " + e.getMessage());
+        }
+        checkpointMemory();
     }
 
-    private void processReply(JsonObject jsonObject) {
-        Log.d("SERVICE API","ProcessReply started.");
-        Log.d("SERVICE API", "jsonObject : " + String.valueOf(jsonObject));
-
-//         // 말풍선 없으니 필요없긴 함
-//        List<String> replyListKo = new ArrayList<>();
-//        List<String> replyListJp = new ArrayList<>();
-//        List<String> replyListEn = new ArrayList<>();  // 저장용 대화
-        String query_trans = jsonObject.getAsJsonObject("query").get("text").getAsString();
-
-        JsonArray replyArray = jsonObject.getAsJsonArray("reply_list");
-        String chatIdx = jsonObject.get("chat_idx").getAsString();
+    private void processReply(String chatIdx, int index, ConversationStreamReader.Reply reply) {
+        ServiceLog.d("SERVICE API","ProcessReply started.");
 
         // 현재 대화가 최신인지 체크
-        if (chatIdxSuccess == null || !chatIdxSuccess.equals(chatIdx)) {
-            Log.d("SERVICE API", "chatIdx Too Old : " + chatIdx + "/"+ chatIdxSuccess);
+        if (!turnState.isCurrent(chatIdx)) {
+            ServiceLog.d("SERVICE API", "chatIdx Too Old : " + chatIdx + "/"+ turnState.success());
             return;
         }
 
-        if (replyArray != null) {
-            String answerVoice = null;
-
-            for (JsonElement replyElement : replyArray) {
-                JsonObject reply = replyElement.getAsJsonObject();
-
-                String answerJp = reply.has("answer_jp") ? reply.get("answer_jp").getAsString() : "";
-                String answerKo = reply.has("answer_ko") ? reply.get("answer_ko").getAsString() : "";
-                String answerEn = reply.has("answer_en") ? reply.get("answer_en").getAsString() : "";
-
-                answerVoice = answerJp;
+        // 이미 TTS 로 보낸 문장이면 무시
+        if (!replyTracker.markDispatched(chatIdx, index)) {
+            ServiceLog.d("SERVICE API", "Reply already dispatched : " + chatIdx + "/" + index);
+            return;
+        }
 
-                if (!answerJp.isEmpty()) {
-//                    replyListJp.add(answerJp);
-                    if ("jp".equals(Bridge.sound_language)) {
-                        answerVoice = answerJp;
-                    }
-                }
+        String soundLanguage = Bridge.config().soundLanguage;
+        String answerVoice = reply.answerJp;  // 기본은 일본어
+        if (!reply.answerKo.isEmpty() && "ko".equals(soundLanguage)) {
+            answerVoice = reply.answerKo;
+        }
+        if (!reply.answerEn.isEmpty() && "en".equals(soundLanguage)) {
+            answerVoice = reply.answerEn;
+        }
 
-                if (!answerKo.isEmpty()) {
-//                    replyListKo.add(answerKo);
-                    if ("ko".equals(Bridge.sound_language)) {
-                        answerVoice = answerKo;
-                    }
-                }
+        ServiceLog.d("SERVICE API","answerVoice: " + answerVoice);
+        ttsPipeline.submit(chatIdx, answerVoice);  // 문장 순서대로 재생되도록 파이프라인에 추가
+    }
 
-                if (!answerEn.isEmpty()) {
-//                    replyListEn.add(answerEn);
-                    if ("en".equals(Bridge.sound_language)) {
-                        answerVoice = answerEn;
-                    }
-                }
+    // TtsPipeline 합성 요청
+    private void synthesizeReply(TtsPipeline.Request request) {
+        BridgeConfig config = Bridge.config();
+        boolean ko = config.koreanTts();
+        latencyTracer.mark(request.chatIdx, LatencyTracer.Stage.TTS_REQUEST);
+
+        // 캐시에 있으면 네트워크 없이 바로 재생
+        byte[] cached = ttsCache.get(ttsCacheKey(config, request.text, ko));
+        logTtsCacheStats();
+        if (cached != null) {
+            ServiceLog.d("SERVICE API", "TTS cache hit : " + request.text);
+            latencyTracer.mark(request.chatIdx, LatencyTracer.Stage.TTS_RESPONSE);
+            TtsAudioStream audioStream = TtsAudioStream.completed(cached);
+            if (!ttsPipeline.complete(request, audioStream)) {
+                audioStream.release();
             }
+            return;
+        }
 
-//            String replyKo = String.join(" ", replyListKo);
-//            String replyJp = String.join(" ", replyListJp);
-//            String replyEn = String.join(" ", replyListEn);
-//            Log.d("SERVICE API","Reply (Ko): " + replyKo);
-//            Log.d("SERVICE API","Reply (Jp): " + replyJp);
-//            Log.d("SERVICE API","Reply (En): " + replyEn);
+        if (ko) {
+            getKoWavFromAPI(config, request);
+        } else {
+            getJpWavFromAPI(config, request);
+        }
+    }
 
-            Log.d("SERVICE API","answerVoice: " + answerVoice);
+    // TTS 요청 JSON 과 같은 값으로 캐시 키 생성 (일본어 : ja, 한국어/영어 : sound_language)
+    private static TtsCache.Key ttsCacheKey(BridgeConfig config, String text, boolean ko) {
+        String lang = ko ? config.outputLanguage() : "ja";
+        return new TtsCache.Key(text, config.nickname, lang, config.soundSpeed);
+    }
 
-            if (answerVoice != null) {
-                if ("ko".equals(Bridge.sound_language) || "en".equals(Bridge.sound_language)) {
-                    getKoWavFromAPI(answerVoice, chatIdx);
-                } else if ("jp".equals(Bridge.sound_language)) {
-                    getJpWavFromAPI(answerVoice, chatIdx);
-                } else {
-                    getJpWavFromAPI(answerVoice, chatIdx);
-                }
-            }
+    private void logTtsCacheStats() {
+        if (ttsCache.lookups() % 20 == 0) {
+            ServiceLog.i("SERVICE API", "TTS cache : " + ttsCache.stats());
         }
     }
 
     // Unity GetJpWavFromAPI 로직 기반 일본어 TTS
-    public void getJpWavFromAPI(String text, String chatIdx) {
-        Log.d("SERVICE API", "Starting Japanese TTS - Text: " + text + ", ChatIdx: " + chatIdx);
+    public void getJpWavFromAPI(BridgeConfig config, TtsPipeline.Request request) {
+        String text = request.text;
+        String chatIdx = request.chatIdx;
+        ServiceLog.d("SERVICE API", "Starting Japanese TTS - Text: " + text + ", ChatIdx: " + chatIdx);
         
         // Unity 로직: server_type_idx == 2일 때 dev_voice 서버 사용
-        String serverTypeIdx = Bridge.server_type_idx != null ? Bridge.server_type_idx : "0";
-        String ttsBaseUrl = baseUrl;
+        String ttsBaseUrl = config.ttsBaseUrl();
         
-        if ("2".equals(serverTypeIdx) && Bridge.dev_voice_url != null && !Bridge.dev_voice_url.isEmpty()) {
-            ttsBaseUrl = Bridge.dev_voice_url;
-            Log.d("SERVICE API", "Using dev_voice server for JP TTS (server_type_idx=2): " + ttsBaseUrl);
+        if (config.devVoice()) {
+            ServiceLog.d("SERVICE API", "Using dev_voice server for JP TTS (server_type_idx=2): " + ttsBaseUrl);
         } else {
-            Log.d("SERVICE API", "Using default server for JP TTS (server_type_idx=" + serverTypeIdx + "): " + ttsBaseUrl);
+            ServiceLog.d("SERVICE API", "Using default server for JP TTS (server_type_idx=" + config.serverTypeIdx + "): " + ttsBaseUrl);
         }
         
-        // Retrofit 설정
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(ttsBaseUrl)
-                .addConverterFactory(GsonConverterFactory.create())
-                .callbackExecutor(apiExecutor)
-                .build();
-        ApiService apiService = retrofit.create(ApiService.class);
+        // Retrofit 설정 (base URL 별 공용 인스턴스)
+        ApiService apiService = ApiClientRegistry.get(ttsBaseUrl);
 
-        // Unity 스타일 요청 데이터 생성
+        // Unity 스타일 요청 데이터 생성 (캐시 키와 같은 값)
+        TtsCache.Key cacheKey = ttsCacheKey(config, text, false);
         JsonObject requestData = new JsonObject();
-        requestData.addProperty("text", text);
-        requestData.addProperty("char", Bridge.nickname != null ? Bridge.nickname : "arona");
-        requestData.addProperty("lang", "ja");  // Unity GetJpWavFromAPI와 동일
-        requestData.addProperty("speed", Bridge.sound_speed != null ? Bridge.sound_speed : "1.0");
+        requestData.addProperty("text", cacheKey.text);
+        requestData.addProperty("char", cacheKey.character);
+        requestData.addProperty("lang", cacheKey.lang);  // Unity GetJpWavFromAPI와 동일
+        requestData.addProperty("speed", cacheKey.speed);
         requestData.addProperty("chatIdx", chatIdx);
 
         // API 호출
-        Log.d("SERVICE API", "Calling JP TTS API with params: " + requestData.toString());
+        ServiceLog.d("SERVICE API", () -> "Calling JP TTS API with params: " + requestData);
         Call<ResponseBody> call = apiService.synthesizeSound(requestData);
-        call.enqueue(new Callback<ResponseBody>() {
+        callTracker.enqueue(scheduler.api, CallTracker.parseTurn(chatIdx), call, new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                Log.d("SERVICE API", "JP TTS response received");
-                if (response.isSuccessful()) {
-                    try {
-                        // Unity 로직: Chat-Idx 헤더 체크하여 과거 대화 무시
-                        String chatIdxHeader = response.headers().get("Chat-Idx");
-                        if (chatIdxHeader != null) {
-                            int chatIdxHeaderNum = Integer.parseInt(chatIdxHeader);
-                            int chatIdxSuccessNum = Integer.parseInt(chatIdxSuccess);
-                            if (chatIdxSuccessNum > chatIdxHeaderNum) {
-                                Log.d("SERVICE API", "Ignoring old voice: current=" + chatIdxSuccess + ", response=" + chatIdxHeader);
-                                return;
-                            }
-                        }
-
-                        // 응답 파일 저장 경로 설정
-                        outputCounter = (outputCounter + 1) % 10;
-                        File outputFile = new File(getExternalFilesDir(null), "android_output" + outputCounter + ".wav");
-
-                        // 파일 저장
-                        Log.d("SERVICE API", "Saving JP TTS WAV: " + outputFile.getAbsolutePath());
-                        if (saveResponseToFile(response.body(), outputFile)) {
-                            Log.d("SERVICE API", "JP TTS WAV saved successfully");
-
-                            // Unity 스타일 음성 재생 관리
-                            manageAudioPlayback(outputFile);
-                        }
-                    } catch (Exception e) {
-                        Log.e("SERVICE API", "Error processing JP TTS response: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                } else {
-                    Log.e("SERVICE API", "JP TTS request failed, status: " + response.code());
-                    try {
-                        String errorBody = response.errorBody() != null ? response.errorBody().string() : "No error details";
-                        Log.e("SERVICE API", "JP TTS error details: " + errorBody);
-                    } catch (Exception e) {
-                        Log.e("SERVICE API", "Error reading JP TTS error body: " + e.getMessage());
-                    }
-                }
+                ServiceLog.d("SERVICE API", "JP TTS response received");
+                latencyTracer.mark(chatIdx, LatencyTracer.Stage.TTS_RESPONSE);
+                handleTtsResponse("JP", request, response, cacheKey);
             }
 
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
-                Log.e("SERVICE API", "JP TTS request failed: " + t.getMessage());
-                t.printStackTrace();
+                ServiceLog.e("SERVICE API", "JP TTS request failed: " + t.getMessage(), t);
+                ttsPipeline.complete(request, null);
             }
         });
     }
 
 
     // Unity GetKoWavFromAPI 로직 기반 한국어/영어 TTS
-    public void getKoWavFromAPI(String text, String chatIdx) {
-        Log.d("SERVICE API", "Starting Korean/English TTS - Text: " + text + ", ChatIdx: " + chatIdx);
+    public void getKoWavFromAPI(BridgeConfig config, TtsPipeline.Request request) {
+        String text = request.text;
+        String chatIdx = request.chatIdx;
+        ServiceLog.d("SERVICE API", "Starting Korean/English TTS - Text: " + text + ", ChatIdx: " + chatIdx);
         
         // Unity 로직: server_type_idx == 2일 때 dev_voice 서버 사용
-        String serverTypeIdx = Bridge.server_type_idx != null ? Bridge.server_type_idx : "0";
-        String ttsBaseUrl = baseUrl;
+        String ttsBaseUrl = config.ttsBaseUrl();
         
-        if ("2".equals(serverTypeIdx) && Bridge.dev_voice_url != null && !Bridge.dev_voice_url.isEmpty()) {
-            ttsBaseUrl = Bridge.dev_voice_url;
-            Log.d("SERVICE API", "Using dev_voice server for KO TTS (server_type_idx=2): " + ttsBaseUrl);
+        if (config.devVoice()) {
+            ServiceLog.d("SERVICE API", "Using dev_voice server for KO TTS (server_type_idx=2): " + ttsBaseUrl);
         } else {
-            Log.d("SERVICE API", "Using default server for KO TTS (server_type_idx=" + serverTypeIdx + "): " + ttsBaseUrl);
+            ServiceLog.d("SERVICE API", "Using default server for KO TTS (server_type_idx=" + config.serverTypeIdx + "): " + ttsBaseUrl);
         }
         
-        // Retrofit 설정
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(ttsBaseUrl)
-                .addConverterFactory(GsonConverterFactory.create())
-                .callbackExecutor(apiExecutor)
-                .build();
-        ApiService apiService = retrofit.create(ApiService.class);
+        // Retrofit 설정 (base URL 별 공용 인스턴스)
+        ApiService apiService = ApiClientRegistry.get(ttsBaseUrl);
 
-        // Unity 스타일 요청 데이터 생성
+        // Unity 스타일 요청 데이터 생성 (캐시 키와 같은 값)
+        TtsCache.Key cacheKey = ttsCacheKey(config, text, true);
         JsonObject requestData = new JsonObject();
-        requestData.addProperty("text", text);
-        requestData.addProperty("char", Bridge.nickname != null ? Bridge.nickname : "arona");
-        requestData.addProperty("lang", Bridge.sound_language != null ? Bridge.sound_language : "ko");
-        requestData.addProperty("speed", Bridge.sound_speed != null ? Bridge.sound_speed : "1.0");
+        requestData.addProperty("text", cacheKey.text);
+        requestData.addProperty("char", cacheKey.character);
+        requestData.addProperty("lang", cacheKey.lang);
+        requestData.addProperty("speed", cacheKey.speed);
         requestData.addProperty("chatIdx", chatIdx);
 
         // API 호출
-        Log.d("SERVICE API", "Calling KO TTS API with params: " + requestData.toString());
+        ServiceLog.d("SERVICE API", () -> "Calling KO TTS API with params: " + requestData);
         Call<ResponseBody> call = apiService.synthesizeSoundKo(requestData);
-        call.enqueue(new Callback<ResponseBody>() {
+        callTracker.enqueue(scheduler.api, CallTracker.parseTurn(chatIdx), call, new Callback<ResponseBody>() {
             @Override
             public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                Log.d("SERVICE API", "KO TTS response received");
-                if (response.isSuccessful()) {
-                    try {
-                        // Unity 로직: Chat-Idx 헤더 체크하여 과거 대화 무시
-                        String chatIdxHeader = response.headers().get("Chat-Idx");
-                        if (chatIdxHeader != null) {
-                            int chatIdxHeaderNum = Integer.parseInt(chatIdxHeader);
-                            int chatIdxSuccessNum = Integer.parseInt(chatIdxSuccess);
-                            if (chatIdxSuccessNum > chatIdxHeaderNum) {
-                                Log.d("SERVICE API", "Ignoring old voice: current=" + chatIdxSuccess + ", response=" + chatIdxHeader);
-                                return;
-                            }
-                        }
-
-                        // 응답 파일 저장 경로 설정
-                        outputCounter = (outputCounter + 1) % 10;
-                        File outputFile = new File(getExternalFilesDir(null), "android_output" + outputCounter + ".wav");
-
-                        // 파일 저장
-                        Log.d("SERVICE API", "Saving KO TTS WAV: " + outputFile.getAbsolutePath());
-                        if (saveResponseToFile(response.body(), outputFile)) {
-                            Log.d("SERVICE API", "KO TTS WAV saved successfully");
-
-                            // Unity 스타일 음성 재생 관리
-                            manageAudioPlayback(outputFile);
-                        }
-                    } catch (Exception e) {
-                        Log.e("SERVICE API", "Error processing KO TTS response: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                } else {
-                    Log.e("SERVICE API", "KO TTS request failed, status: " + response.code());
-                    try {
-                        String errorBody = response.errorBody() != null ? response.errorBody().string() : "No error details";
-                        Log.e("SERVICE API", "KO TTS error details: " + errorBody);
-                    } catch (Exception e) {
-                        Log.e("SERVICE API", "Error reading KO TTS error body: " + e.getMessage());
-                    }
-                }
+                ServiceLog.d("SERVICE API", "KO TTS response received");
+                latencyTracer.mark(chatIdx, LatencyTracer.Stage.TTS_RESPONSE);
+                handleTtsResponse("KO", request, response, cacheKey);
             }
 
             @Override
             public void onFailure(Call<ResponseBody> call, Throwable t) {
-                Log.e("SERVICE API", "KO TTS request failed: " + t.getMessage());
-                t.printStackTrace();
+                ServiceLog.e("SERVICE API", "KO TTS request failed: " + t.getMessage(), t);
+                ttsPipeline.complete(request, null);
             }
         });
     }
 
-    private boolean saveResponseToFile(ResponseBody body, File file) {
-        try (InputStream inputStream = body.byteStream();
-             OutputStream outputStream = new FileOutputStream(file)) {
-
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+    // TTS 응답 처리 (JP / KO 공용)
+    // - 응답 본문은 어떤 경로로 끝나든 닫음 (지난 대화 / 예외에서 닫지 않으면 공용 클라이언트의 연결을 계속 점유)
+    // - ttsPipeline.complete 는 요청마다 한 번만 : 음성을 넘긴 뒤에는 실패 처리로 다시 부르지 않음
+    private void handleTtsResponse(String label, TtsPipeline.Request request, Response<ResponseBody> response, TtsCache.Key cacheKey) {
+        if (!response.isSuccessful()) {
+            ServiceLog.e("SERVICE API", label + " TTS request failed, status: " + response.code());
+            try (ResponseBody errorBody = response.errorBody()) {
+                String details = errorBody != null ? errorBody.string() : "No error details";
+                ServiceLog.e("SERVICE API", label + " TTS error details: " + details);
+            } catch (Exception e) {
+                ServiceLog.e("SERVICE API", "Error reading " + label + " TTS error body: " + e.getMessage());
             }
-            return true;
-        } catch (IOException e) {
-            Log.e("SERVICE API", "파일 저장 중 오류 발생: " + e.getMessage());
-            return false;
-        }
-    }
-
-
-
-    private void manageAudioPlayback(File audioFile) {
-        if (mediaPlayer == null) {
-            mediaPlayer = new MediaPlayer();
-        }
-
-        // 현재 재생 중이라면 큐에 추가
-        if (mediaPlayer.isPlaying()) {
-            audioQueue.offer(audioFile);
+            ttsPipeline.complete(request, null);  // 실패한 문장은 건너뛰고 다음 문장 재생
             return;
         }
 
-        try {
-            // 음량 값을 설정
-            float volume = 1.0f; // 기본값 (100%)
-            if (Bridge.sound_volume != null) {
-                try {
-                    int volumeInt = Integer.parseInt(Bridge.sound_volume);
-                    volume = Math.max(0, Math.min(volumeInt / 100f, 1.0f)); // 0.0 ~ 1.0 사이로 클램핑
-                } catch (NumberFormatException e) {
-                    Log.e("Audio", "Invalid volume value, defaulting to 100%.");
+        boolean completed = false;
+        try (ResponseBody body = response.body()) {
+            // Unity 로직: Chat-Idx 헤더 체크하여 과거 대화 무시
+            String chatIdxHeader = response.headers().get("Chat-Idx");
+            if (chatIdxHeader != null) {
+                int chatIdxHeaderNum = Integer.parseInt(chatIdxHeader);
+                if (turnState.isOlder(chatIdxHeaderNum)) {
+                    ServiceLog.d("SERVICE API", "Ignoring old voice: current=" + turnState.success() + ", response=" + chatIdxHeader);
+                    return;
                 }
             }
+            if (body == null) {
+                ServiceLog.e("SERVICE API", label + " TTS response has no body");
+                return;
+            }
 
-            // 음성 재생 설정
-            mediaPlayer.reset();
-            mediaPlayer.setDataSource(audioFile.getAbsolutePath());
-            mediaPlayer.prepare();
-            mediaPlayer.setVolume(volume, volume);  // 음량 적용
-            mediaPlayer.start();
+            // 헤더 수신 즉시 순서 버퍼에 넣고, 본문은 도착하는 대로 메모리 버퍼에 기록 (재생과 동시 진행)
+            TtsAudioStream audioStream = audioSpool.open();
+            completed = true;
+            if (ttsPipeline.complete(request, audioStream)) {
+                readTtsResponse(body, audioStream, cacheKey);
+                ServiceLog.d("SERVICE API", label + " TTS WAV received : " + audioStream.size() + " bytes");
+            } else {
+                // 지난 대화 : 재생용 / 다운로드용 참조 모두 반납
+                audioStream.release();
+                audioStream.release();
+            }
+        } catch (Exception e) {
+            ServiceLog.e("SERVICE API", "Error processing " + label + " TTS response: " + e.getMessage(), e);
+        } finally {
+            if (!completed) {
+                ttsPipeline.complete(request, null);  // 지난 대화 / 실패한 문장은 건너뛰고 다음 문장 재생
+            }
+        }
+    }
 
-            mediaPlayer.setOnCompletionListener(mp -> {
-                if (!audioQueue.isEmpty()) {
-                    manageAudioPlayback(audioQueue.poll()); // 큐에 다음 음성 재생
+    // TTS 응답 본문을 끝까지 읽어 audioStream 에 기록, 끝까지 받았으면 캐시에 저장
+    private void readTtsResponse(ResponseBody body, TtsAudioStream audioStream, TtsCache.Key cacheKey) {
+        boolean complete = false;
+        try (InputStream inputStream = body.byteStream()) {
+            byte[] buffer = new byte[4096];
+            int bytesRead;
+            complete = true;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                if (!audioStream.write(buffer, 0, bytesRead)) {
+                    complete = false;
+                    break;  // 재생 중지됨
                 }
-            });
+            }
         } catch (IOException e) {
-            Log.e("Audio", "재생 오류: " + e.getMessage());
+            complete = false;
+            ServiceLog.e("SERVICE API", "TTS 응답 수신 중 오류 발생: " + e.getMessage());
+        } finally {
+            audioStream.finish();
         }
-    }
 
-    private void ResetAudio() {
-        if (mediaPlayer != null) {
-            if (mediaPlayer.isPlaying()) {
-                mediaPlayer.stop(); // 현재 재생 중인 음성을 멈춤
-            }
-            mediaPlayer.reset(); // MediaPlayer 리소스 초기화
+        if (complete) {
+            ttsCache.put(cacheKey, audioStream.toByteArray());
         }
-        audioQueue.clear(); // 큐 초기화
-        Log.d("Audio", "Reset Audio from STT");
+        audioStream.release();  // 다운로드용 참조 반납
     }
 
-    // 필요할 경우 음성재생용 sampleRATE를 여기서 설정해서 audioTrack 선언시 사용해야 함
-    private int getSampleRate(File file) {
-        try (FileInputStream inputStream = new FileInputStream(file)) {
-            byte[] header = new byte[44];
-            inputStream.read(header, 0, 44);
-            // 샘플 레이트는 24~27 바이트에 저장됨 (리틀 엔디안)
-            return ((header[27] & 0xFF) << 24) | ((header[26] & 0xFF) << 16)
-                    | ((header[25] & 0xFF) << 8) | (header[24] & 0xFF);
-        } catch (Exception e) {
-            Log.e("SERVICE", "Cannot find sample Rate");
-            return 0;
-        }
+    // 순서대로 정렬된 음성 재생 (현재 재생 중이면 재생기 대기열에서 대기)
+    private void manageAudioPlayback(String chatIdx, TtsAudioStream audioStream) {
+        audioStream.setOnAudible(() -> latencyTracer.mark(chatIdx, LatencyTracer.Stage.PLAYBACK_START));
+        wavStreamPlayer.enqueue(audioStream);
+    }
+
+    private void ResetAudio() {
+        wavStreamPlayer.stop(); // 현재 재생 중인 음성을 멈추고 대기열 초기화
+        ttsPipeline.reset(); // 합성 대기 중인 문장 초기화
+        speculativeQueries.keySet().removeIf(callTracker::isStale); // 새 대화가 시작돼 취소된 예측 대화 정리
+        ServiceLog.d("Audio", "Reset Audio from STT");
     }
 }
@@ -0,0 +1,85 @@
+package com.example.mylittlejarvisandroid;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayDeque;
+
+// 녹음 구간 스냅샷용 재사용 버퍼 풀
+// 업로드가 끝날 때까지 원형 버퍼 대신 이 버퍼를 붙잡고 있다가 release 로 반납
+// 버퍼는 필요할 때만 커지므로 평소에는 발화마다 새로 할당하지 않음 (최대 maxCapacity : 원형 버퍼 크기)
+public class PcmBufferPool {
+    private static final int CHUNK_SAMPLES = 4096;
+
+    private final int maxPooled;
+    private final int initialCapacity;
+    private final int maxCapacity;
+    private final ArrayDeque<Buffer> free = new ArrayDeque<>();
+
+    public PcmBufferPool(int maxPooled, int initialCapacity, int maxCapacity) {
+        this.maxPooled = maxPooled;
+        this.initialCapacity = Math.min(initialCapacity, maxCapacity);
+        this.maxCapacity = maxCapacity;
+    }
+
+    public final class Buffer {
+        private short[] data;
+        private int length;
+        // WAV 직렬화용 리틀 엔디안 청크 (short 는 ShortBuffer 뷰로 한 번에 기록)
+        private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SAMPLES * 2).order(ByteOrder.LITTLE_ENDIAN);
+        private final ShortBuffer chunkShorts = chunk.asShortBuffer();
+
+        private Buffer(int capacity) {
+            data = new short[capacity];
+        }
+
+        // 원형 버퍼 구간 복사 (두 배씩 커지되 maxCapacity 를 넘지 않음, 구간은 원형 버퍼보다 길 수 없음)
+        public void copyFrom(AudioRingBuffer.View view) {
+            if (data.length < view.length()) {
+                data = new short[Math.max(view.length(), Math.min(data.length * 2, maxCapacity))];
+            }
+            length = view.copyTo(data, 0);
+        }
+
+        public short[] data() {
+            return data;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public int capacity() {
+            return data.length;
+        }
+
+        // [offset, offset + count) 샘플을 리틀 엔디안으로 변환한 chunk 반환 (count <= chunkSamples())
+        public ByteBuffer encode(int offset, int count) {
+            chunkShorts.clear();
+            chunkShorts.put(data, offset, count);
+            chunk.clear();
+            chunk.limit(count * 2);
+            return chunk;
+        }
+
+        public int chunkSamples() {
+            return CHUNK_SAMPLES;
+        }
+
+        public void release() {
+            PcmBufferPool.this.release(this);
+        }
+    }
+
+    public synchronized Buffer acquire() {
+        Buffer buffer = free.poll();
+        return buffer != null ? buffer : new Buffer(initialCapacity);
+    }
+
+    private synchronized void release(Buffer buffer) {
+        buffer.length = 0;
+        if (free.size() < maxPooled) {
+            free.push(buffer);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+// 재생 대기열 + 현재 재생 항목 (WavStreamPlayer 용, Android 의존 없음)
+// - 꺼내기(take)와 현재 항목 지정을 한 잠금 안에서 처리해서,
+//   stop 이 대기열에서 빠졌지만 아직 current 가 아닌 항목을 놓치지 않음 (ResetAudio 뒤에 지난 문장이 재생되던 문제)
+// - stop 은 대기 항목을 모두 꺼내 주고 재생 중인 항목을 반환 : 취소 / 반납은 호출한 쪽에서 잠금 밖에서
+public class PlaybackQueue<T> {
+    private final ArrayDeque<T> queue = new ArrayDeque<>();
+    private T current;
+
+    // 재생 대기열에 추가 (순서대로 재생)
+    public synchronized void enqueue(T item) {
+        queue.add(item);
+        notifyAll();
+    }
+
+    // 다음 항목을 꺼내 현재 재생 항목으로 지정 (대기열이 빌 동안 대기)
+    public synchronized T take() throws InterruptedException {
+        while (queue.isEmpty()) {
+            wait();
+        }
+        current = queue.poll();
+        return current;
+    }
+
+    // 재생 종료 (끝까지 재생 / 취소 / 오류)
+    public synchronized void finish(T item) {
+        if (current == item) {
+            current = null;
+        }
+    }
+
+    // 대기 항목은 dropped 로 옮기고, 재생 중인 항목 반환 (없으면 null)
+    public synchronized T stop(List<T> dropped) {
+        dropped.addAll(queue);
+        queue.clear();
+        return current;
+    }
+
+    public synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public synchronized boolean isBusy() {
+        return current != null || !queue.isEmpty();
+    }
+}
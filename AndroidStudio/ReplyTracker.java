@@ -0,0 +1,33 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.BitSet;
+
+// 대화(chatIdx)별로 TTS 로 보낸 reply_list 순번 기록
+// 같은 대화의 스트림이 다시 들어오거나 줄이 중복돼도 문장마다 한 번만 합성 요청하도록 함
+// 지난 대화의 답변은 어차피 버리므로 가장 최근 chatIdx 하나만 기억
+public class ReplyTracker {
+    private String chatIdx = null;
+    private final BitSet dispatched = new BitSet();
+
+    // 처음 보내는 답변이면 기록하고 true, 이미 보낸 답변이면 false
+    public synchronized boolean markDispatched(String chatIdx, int index) {
+        if (this.chatIdx == null || !this.chatIdx.equals(chatIdx)) {
+            this.chatIdx = chatIdx;
+            dispatched.clear();
+        }
+        if (dispatched.get(index)) {
+            return false;
+        }
+        dispatched.set(index);
+        return true;
+    }
+
+    public synchronized int dispatchedCount(String chatIdx) {
+        return chatIdx != null && chatIdx.equals(this.chatIdx) ? dispatched.cardinality() : 0;
+    }
+
+    public synchronized void reset() {
+        chatIdx = null;
+        dispatched.clear();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.mylittlejarvisandroid;
+
+import android.util.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+// 서비스 로그 (android.util.Log 대신 사용)
+// - 레벨 확인 후에만 기록 : MIN_LEVEL 아래는 컴파일 시 제거, 그 위는 Bridge.ReceiveLogLevel 로 정한 런타임 레벨
+// - 문자열 조합 비용이 큰 로그는 Message 로 넘겨서 레벨이 꺼져 있으면 문자열을 만들지 않음
+//   (값을 캡처하는 람다도 객체가 생기므로 녹음 루프처럼 매 프레임 도는 곳은 isLoggable 로 먼저 확인)
+// - 기록한 로그는 logcat 과 함께 최근 RING_SIZE 개를 메모리 링 버퍼에 유지 (dump 로 꺼냄, 기록 시 추가 할당 없음)
+public final class ServiceLog {
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+
+    // 이 레벨 아래 로그는 코드에서 제거 (릴리스에서 DEBUG 이상으로 올리면 isLoggable 분기째 사라짐)
+    private static final int MIN_LEVEL = VERBOSE;
+    private static final int RING_SIZE = 512;
+
+    private static volatile int level = INFO;
+
+    private static final long[] ringTimes = new long[RING_SIZE];
+    private static final int[] ringLevels = new int[RING_SIZE];
+    private static final String[] ringTags = new String[RING_SIZE];
+    private static final String[] ringMessages = new String[RING_SIZE];
+    private static int ringNext = 0;
+    private static int ringCount = 0;
+
+    // 레벨이 켜져 있을 때만 호출되는 메시지
+    public interface Message {
+        String get();
+    }
+
+    private ServiceLog() {
+    }
+
+    public static boolean isLoggable(int priority) {
+        return priority >= MIN_LEVEL && priority >= level;
+    }
+
+    // verbose / debug / info / warn / error (그 외 값은 info)
+    public static void setLevel(String name) {
+        level = parseLevel(name);
+    }
+
+    public static int level() {
+        return level;
+    }
+
+    public static void v(String tag, String message) {
+        if (isLoggable(VERBOSE)) {
+            write(VERBOSE, tag, message, null);
+        }
+    }
+
+    public static void v(String tag, Message message) {
+        if (isLoggable(VERBOSE)) {
+            write(VERBOSE, tag, message.get(), null);
+        }
+    }
+
+    public static void d(String tag, String message) {
+        if (isLoggable(DEBUG)) {
+            write(DEBUG, tag, message, null);
+        }
+    }
+
+    public static void d(String tag, Message message) {
+        if (isLoggable(DEBUG)) {
+            write(DEBUG, tag, message.get(), null);
+        }
+    }
+
+    public static void i(String tag, String message) {
+        if (isLoggable(INFO)) {
+            write(INFO, tag, message, null);
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (isLoggable(WARN)) {
+            write(WARN, tag, message, null);
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (isLoggable(ERROR)) {
+            write(ERROR, tag, message, null);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (isLoggable(ERROR)) {
+            write(ERROR, tag, message, error);
+        }
+    }
+
+    private static void write(int priority, String tag, String message, Throwable error) {
+        if (error != null) {
+            Log.println(priority, tag, message + '\n' + Log.getStackTraceString(error));
+        } else {
+            Log.println(priority, tag, message);
+        }
+        synchronized (ServiceLog.class) {
+            ringTimes[ringNext] = System.currentTimeMillis();
+            ringLevels[ringNext] = priority;
+            ringTags[ringNext] = tag;
+            ringMessages[ringNext] = error != null ? message + " : " + error : message;
+            ringNext = (ringNext + 1) % RING_SIZE;
+            ringCount = Math.min(ringCount + 1, RING_SIZE);
+        }
+    }
+
+    // 링 버퍼 내용 (오래된 순, logcat 과 비슷한 한 줄 형식)
+    public static String dump() {
+        SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+        StringBuilder builder = new StringBuilder();
+        synchronized (ServiceLog.class) {
+            int start = (ringNext - ringCount + RING_SIZE) % RING_SIZE;
+            for (int n = 0; n < ringCount; n++) {
+                int i = (start + n) % RING_SIZE;
+                builder.append(format.format(new Date(ringTimes[i])))
+                        .append(' ').append(levelChar(ringLevels[i]))
+                        .append('/').append(ringTags[i])
+                        .append(": ").append(ringMessages[i])
+                        .append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    public static synchronized void clear() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            ringTags[i] = null;
+            ringMessages[i] = null;
+        }
+        ringNext = 0;
+        ringCount = 0;
+    }
+
+    private static int parseLevel(String name) {
+        if (name == null) {
+            return INFO;
+        }
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "verbose":
+                return VERBOSE;
+            case "debug":
+                return DEBUG;
+            case "warn":
+                return WARN;
+            case "error":
+                return ERROR;
+            default:
+                return INFO;
+        }
+    }
+
+    private static char levelChar(int priority) {
+        switch (priority) {
+            case VERBOSE:
+                return 'V';
+            case DEBUG:
+                return 'D';
+            case WARN:
+                return 'W';
+            case ERROR:
+                return 'E';
+            default:
+                return 'I';
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 서비스 작업 스케줄러
+// - 레인(스트림 / 일반 API)별 스레드 수와 대기열 크기 제한 (유휴 스레드는 자동 종료)
+// - 대기열은 최신 대화(chatIdx 큰 순) 우선, 같은 대화 안에서는 들어온 순서
+// - 대기열이 꽉 차면 더 오래된 대화의 작업을 버리고, 버릴 게 없으면 거절
+// - 버리거나 거절한 작업은 onDropped 로 알려서 응답 본문 정리 / 실패 처리를 하게 함
+public class ServiceScheduler {
+
+    public static final class Lane {
+        final String name;
+        final int capacity;
+        final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+        final ThreadPoolExecutor executor;
+
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        Lane(String name, int threads, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, queue,
+                    r -> new Thread(r, name + "-" + threadCount.incrementAndGet()));
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        public int queueDepth() {
+            return queue.size();
+        }
+
+        public int activeCount() {
+            return executor.getActiveCount();
+        }
+
+        @Override
+        public String toString() {
+            return name + " queue=" + queueDepth() + "/" + capacity + " active=" + activeCount()
+                    + " submitted=" + submitted.get() + " completed=" + completed.get()
+                    + " rejected=" + rejected.get() + " dropped=" + dropped.get();
+        }
+    }
+
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final class Task implements Runnable, Comparable<Task> {
+        final Lane lane;
+        final int turn;
+        final long seq = sequence.getAndIncrement();
+        final Runnable task;
+        final Runnable onDropped;
+
+        Task(Lane lane, int turn, Runnable task, Runnable onDropped) {
+            this.lane = lane;
+            this.turn = turn;
+            this.task = task;
+            this.onDropped = onDropped;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                lane.completed.incrementAndGet();
+            }
+        }
+
+        void drop() {
+            if (onDropped != null) {
+                try {
+                    onDropped.run();
+                } catch (RuntimeException e) {
+                    ServiceLog.e("SERVICE", "onDropped error : " + e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (turn != other.turn) {
+                return Integer.compare(other.turn, turn);  // 최신 대화 먼저
+            }
+            return Long.compare(seq, other.seq);
+        }
+    }
+
+    public final Lane streaming;  // 대화 스트림 (응답을 끝까지 읽으므로 오래 점유)
+    public final Lane api;  // STT / TTS 응답 처리
+
+    private volatile boolean shutdown = false;
+
+    public ServiceScheduler() {
+        streaming = new Lane("stream", 3, 4);
+        api = new Lane("api", 6, 16);
+    }
+
+    // 작업 제출, 거절되면 onDropped 를 호출하고 false
+    public boolean submit(Lane lane, int turn, Runnable task, Runnable onDropped) {
+        Task newTask = new Task(lane, turn, task, onDropped);
+        Task victim = null;
+        boolean accepted;
+        synchronized (lane) {
+            if (shutdown) {
+                accepted = false;
+            } else if (lane.queue.size() < lane.capacity) {
+                accepted = true;
+            } else {
+                // 대기열이 가득 참 : 가장 오래된 대화의 작업과 비교
+                Task oldest = oldestQueued(lane);
+                if (oldest != null && oldest.turn < turn && lane.queue.remove(oldest)) {
+                    victim = oldest;
+                    accepted = true;
+                } else {
+                    accepted = false;
+                }
+            }
+            if (accepted) {
+                lane.submitted.incrementAndGet();
+                lane.executor.execute(newTask);
+            }
+        }
+
+        if (victim != null) {
+            lane.dropped.incrementAndGet();
+            ServiceLog.w("SERVICE", "Dropped stale task (chatIdx " + victim.turn + ") : " + lane);
+            victim.drop();
+        }
+        if (!accepted) {
+            lane.rejected.incrementAndGet();
+            ServiceLog.w("SERVICE", "Rejected task (chatIdx " + turn + ") : " + lane);
+            newTask.drop();
+        }
+        return accepted;
+    }
+
+    // turn 보다 오래된 대화의 대기 작업 정리 (새 대화 시작 시)
+    public void dropOlderThan(int turn) {
+        for (Lane lane : new Lane[]{streaming, api}) {
+            List<Task> stale = new ArrayList<>();
+            synchronized (lane) {
+                for (Runnable r : lane.queue.toArray(new Runnable[0])) {
+                    Task task = (Task) r;
+                    if (task.turn < turn && lane.queue.remove(task)) {
+                        stale.add(task);
+                    }
+                }
+            }
+            for (Task task : stale) {
+                lane.dropped.incrementAndGet();
+                task.drop();
+            }
+        }
+    }
+
+    private static Task oldestQueued(Lane lane) {
+        Task oldest = null;
+        for (Runnable r : lane.queue.toArray(new Runnable[0])) {
+            Task task = (Task) r;
+            if (oldest == null || task.compareTo(oldest) > 0) {
+                oldest = task;
+            }
+        }
+        return oldest;
+    }
+
+    public String stats() {
+        return streaming + " | " + api;
+    }
+
+    // 서비스 종료 : 대기 작업은 onDropped 처리 후 스레드 정리
+    public void shutdown() {
+        shutdown = true;
+        for (Lane lane : new Lane[]{streaming, api}) {
+            List<Runnable> remaining;
+            synchronized (lane) {
+                remaining = lane.executor.shutdownNow();
+            }
+            for (Runnable r : remaining) {
+                lane.dropped.incrementAndGet();
+                ((Task) r).drop();
+            }
+        }
+        ServiceLog.i("SERVICE", "Scheduler shutdown : " + stats());
+    }
+}
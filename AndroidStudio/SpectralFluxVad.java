@@ -0,0 +1,189 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.Arrays;
+
+// 스펙트럼 변화량(spectral flux) VAD
+// - 256 샘플(16kHz 기준 16ms) 프레임에 Hann 창을 씌워 FFT, 음성 대역(300Hz ~ 4kHz) 크기 스펙트럼만 사용
+// - 이전 프레임 대비 증가한 크기의 합(flux)을 대역 크기 합으로 정규화하고 지수 평활
+//   (정상 소음은 스펙트럼이 거의 그대로라 flux 가 작고, 음성은 피치 / 포먼트가 계속 바뀜)
+// - 기준값은 비활성 프레임의 flux 평균 / 편차를 따라가는 적응형
+// - FFT 버퍼와 계수는 생성 시 한 번만 할당 (프레임마다 할당 없음)
+public class SpectralFluxVad implements VoiceActivityDetector {
+    private static final int FFT_SIZE = 256;
+    private static final float LOW_HZ = 300f;
+    private static final float HIGH_HZ = 4000f;
+    private static final float HANGOVER_SEC = 0.3f;
+    private static final int ONSET_FRAMES = 3;  // 약 50ms 연속이면 활성
+    private static final int INIT_FRAMES = 12;  // 처음 약 200ms 는 기준값 추정만
+
+    private static final float SMOOTH = 0.5f;  // flux 평활 계수
+    private static final float ADAPT = 0.05f;  // 기준값 갱신 속도 (비활성 프레임만)
+    private static final float THRESHOLD_STD = 3.0f;  // 평균 + 3 * 편차
+    private static final float MIN_MARGIN = 0.05f;  // 기준값 최소 여유 (정규화 flux)
+    private static final float ENERGY_RATIO = 2.0f;  // 대역 에너지도 소음 대비 +3dB 이상
+    private static final float MIN_BAND_ENERGY = 1e-4f;
+
+    private final int hangoverSamples;
+    private final int lowBin;
+    private final int highBin;
+
+    // FFT 작업 공간
+    private final float[] frame = new float[FFT_SIZE];
+    private final float[] window = new float[FFT_SIZE];
+    private final float[] re = new float[FFT_SIZE];
+    private final float[] im = new float[FFT_SIZE];
+    private final float[] cos = new float[FFT_SIZE / 2];
+    private final float[] sin = new float[FFT_SIZE / 2];
+    private final int[] bitReverse = new int[FFT_SIZE];
+    private final float[] prevMag;
+    private final float[] mag;
+
+    private int filled = 0;
+    private int frames = 0;
+    private float smoothFlux = 0;
+    private float fluxMean = 0;
+    private float fluxVar = 0;
+    private float noiseEnergy = MIN_BAND_ENERGY;
+    private int speechRun = 0;
+    private boolean active = false;
+
+    public SpectralFluxVad(int sampleRate) {
+        this.hangoverSamples = (int) (sampleRate * HANGOVER_SEC);
+        this.lowBin = Math.max(1, Math.round(LOW_HZ * FFT_SIZE / sampleRate));
+        this.highBin = Math.min(FFT_SIZE / 2, Math.round(HIGH_HZ * FFT_SIZE / sampleRate));
+        this.prevMag = new float[highBin - lowBin + 1];
+        this.mag = new float[highBin - lowBin + 1];
+
+        for (int i = 0; i < FFT_SIZE; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / (FFT_SIZE - 1)));
+        }
+        for (int i = 0; i < FFT_SIZE / 2; i++) {
+            cos[i] = (float) Math.cos(2 * Math.PI * i / FFT_SIZE);
+            sin[i] = (float) -Math.sin(2 * Math.PI * i / FFT_SIZE);
+        }
+        int bits = Integer.numberOfTrailingZeros(FFT_SIZE);
+        for (int i = 0; i < FFT_SIZE; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+    }
+
+    @Override
+    public boolean process(short[] samples, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            frame[filled++] = samples[i] / 32768.0f;
+            if (filled == FFT_SIZE) {
+                filled = 0;
+                endFrame();
+            }
+        }
+        return active;
+    }
+
+    private void endFrame() {
+        for (int i = 0; i < FFT_SIZE; i++) {
+            int j = bitReverse[i];
+            re[j] = frame[i] * window[i];
+            im[j] = 0f;
+        }
+        fft();
+
+        float flux = 0;
+        float bandSum = 0;
+        float bandEnergy = 0;
+        for (int k = lowBin; k <= highBin; k++) {
+            float power = re[k] * re[k] + im[k] * im[k];
+            float m = (float) Math.sqrt(power);
+            int b = k - lowBin;
+            mag[b] = m;
+            float diff = m - prevMag[b];
+            if (diff > 0) {
+                flux += diff;
+            }
+            bandSum += m;
+            bandEnergy += power;
+        }
+        System.arraycopy(mag, 0, prevMag, 0, mag.length);
+        bandEnergy /= FFT_SIZE;
+
+        float normFlux = bandSum > 0 ? flux / bandSum : 0f;
+        smoothFlux += SMOOTH * (normFlux - smoothFlux);
+
+        if (frames < INIT_FRAMES) {
+            // 시작 구간은 배경 소음으로 간주
+            frames++;
+            fluxMean += (smoothFlux - fluxMean) / frames;
+            fluxVar += ((smoothFlux - fluxMean) * (smoothFlux - fluxMean) - fluxVar) / frames;
+            noiseEnergy = Math.max(frames == 1 ? bandEnergy : Math.min(noiseEnergy, bandEnergy), MIN_BAND_ENERGY);
+            return;
+        }
+        frames++;
+
+        float threshold = fluxMean + Math.max(THRESHOLD_STD * (float) Math.sqrt(fluxVar), MIN_MARGIN);
+        boolean speech = smoothFlux > threshold && bandEnergy > noiseEnergy * ENERGY_RATIO;
+
+        if (speech) {
+            speechRun++;
+            if (speechRun >= ONSET_FRAMES) {
+                active = true;
+            }
+        } else {
+            speechRun = 0;
+            active = false;
+
+            // 기준값 갱신 (비활성 프레임만)
+            float delta = smoothFlux - fluxMean;
+            fluxMean += ADAPT * delta;
+            fluxVar += ADAPT * (delta * delta - fluxVar);
+            noiseEnergy += ADAPT * (bandEnergy - noiseEnergy);
+        }
+        if (bandEnergy < noiseEnergy) {
+            noiseEnergy = bandEnergy;  // 더 조용해지면 바로 따라감
+        }
+        noiseEnergy = Math.max(noiseEnergy, MIN_BAND_ENERGY);
+    }
+
+    // 제자리 radix-2 FFT (입력은 비트 역순으로 re / im 에 채워져 있어야 함)
+    private void fft() {
+        for (int size = 2; size <= FFT_SIZE; size <<= 1) {
+            int half = size >> 1;
+            int step = FFT_SIZE / size;
+            for (int start = 0; start < FFT_SIZE; start += size) {
+                for (int k = 0; k < half; k++) {
+                    float wr = cos[k * step];
+                    float wi = sin[k * step];
+                    int a = start + k;
+                    int b = a + half;
+                    float tr = re[b] * wr - im[b] * wi;
+                    float ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int frameSamples() {
+        return FFT_SIZE;
+    }
+
+    @Override
+    public int hangoverSamples() {
+        return hangoverSamples;
+    }
+
+    @Override
+    public void reset() {
+        filled = 0;
+        frames = 0;
+        smoothFlux = 0;
+        fluxMean = 0;
+        fluxVar = 0;
+        noiseEnergy = MIN_BAND_ENERGY;
+        speechRun = 0;
+        active = false;
+        Arrays.fill(prevMag, 0f);
+    }
+}
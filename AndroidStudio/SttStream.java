@@ -0,0 +1,240 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonObject;
+
+import java.util.UUID;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// 발화 중에 음성을 청크로 나눠 보내는 스트리밍 STT 세션 (stt_stream/chunk -> stt_stream/finalize)
+// - 녹음 스레드는 append 로 쌓기만 하고, 전송은 한 번에 하나씩 순서대로 (응답이 오면 그동안 쌓인 음성을 다음 청크로)
+//   네트워크가 느리면 청크가 자연스럽게 커지고, 요청 수가 녹음 속도를 넘지 않음
+// - 청크 응답의 partial(중간 인식 결과)은 listener 로 전달
+//   finish 후 보낸 음성까지 모두 반영된 partial 은 complete = true 로 한 번만 (finalize 결과와 거의 같음)
+// - finish 후 남은 음성을 다 보내면 finalize 요청, 최종 결과는 /stt 응답과 같은 형식 ({text, lang, chatIdx})
+// - 청크 / finalize 가 실패하면 더 보내지 않고, finish 때 받은 발화 스냅샷과 함께 onFailed 로 알림
+//   (호출한 쪽에서 일반 업로드로 다시 보냄, 발화 중 실패해도 알림은 finish 이후)
+// - 새 대화가 시작돼 요청이 취소되거나 지난 대화로 밀려난 경우는 실패가 아님 : 알리지 않고 발화 스냅샷만 반납
+//   (일반 업로드로 다시 보내면 새 chatIdx 를 받아 더 최신 대화를 덮어씀)
+public class SttStream {
+    private static final MediaType PCM = MediaType.parse("application/octet-stream");
+
+    public interface Listener {
+        void onPartial(SttStream stream, String text, boolean complete);
+
+        void onFinal(SttStream stream, JsonObject result);
+
+        // unsupported : 서버에 스트리밍 엔드포인트가 없음 (404 / 405)
+        void onFailed(SttStream stream, boolean unsupported);
+    }
+
+    private final ApiService apiService;
+    private final CallTracker callTracker;
+    private final ServiceScheduler.Lane lane;
+    private final int chatIdx;
+    private final int sampleRate;
+    private final int minChunkSamples;
+    private final Listener listener;
+    private final String streamId = UUID.randomUUID().toString();
+
+    private final Buffer pending = new Buffer();  // 아직 보내지 않은 PCM (16비트 리틀 엔디안)
+    private boolean inFlight = false;
+    private boolean finishing = false;
+    private boolean finalizing = false;
+    private boolean failed = false;
+    private boolean unsupported = false;
+    private boolean abandoned = false;  // 지난 대화가 되어 중단 (알림 없음)
+    private String partial;  // 가장 최근 중간 인식 결과
+    private boolean completeReported = false;
+    private PcmBufferPool.Buffer utterance;  // finish 때 받은 발화 전체 스냅샷
+    private int seq = 0;
+    private long sentSamples = 0;
+
+    public SttStream(ApiService apiService, CallTracker callTracker, ServiceScheduler.Lane lane,
+                     int chatIdx, int sampleRate, int minChunkSamples, Listener listener) {
+        this.apiService = apiService;
+        this.callTracker = callTracker;
+        this.lane = lane;
+        this.chatIdx = chatIdx;
+        this.sampleRate = sampleRate;
+        this.minChunkSamples = minChunkSamples;
+        this.listener = listener;
+    }
+
+    public int chatIdx() {
+        return chatIdx;
+    }
+
+    public synchronized boolean isFailed() {
+        return failed;
+    }
+
+    // 발화 전체 스냅샷 (finish 이후, onFinal / onFailed 에서 반납할 것)
+    public synchronized PcmBufferPool.Buffer utterance() {
+        return utterance;
+    }
+
+    // 녹음 구간 추가 (녹음 스레드)
+    public void append(AudioRingBuffer.View view) {
+        synchronized (this) {
+            if (failed || finishing) {
+                return;
+            }
+            for (int i = 0; i < view.length(); i++) {
+                pending.writeShortLe(view.get(i));
+            }
+        }
+        pump();
+    }
+
+    // 발화 종료 : 남은 음성을 보낸 뒤 finalize (이미 실패했으면 바로 onFailed)
+    public void finish(PcmBufferPool.Buffer utterance) {
+        boolean alreadyFailed;
+        synchronized (this) {
+            if (abandoned) {
+                utterance.release();
+                return;
+            }
+            this.utterance = utterance;
+            finishing = true;
+            alreadyFailed = failed;
+        }
+        if (alreadyFailed) {
+            listener.onFailed(this, unsupported);
+            return;
+        }
+        // 보낼 음성이 더 없으면 마지막 partial 이 곧 완성된 결과
+        String completePartial = takeCompletePartial();
+        if (completePartial != null) {
+            listener.onPartial(this, completePartial, true);
+        }
+        pump();
+    }
+
+    // finish 이후 보낸 음성이 모두 응답됐으면 마지막 partial (한 번만)
+    private synchronized String takeCompletePartial() {
+        if (!finishing || inFlight || pending.size() > 0 || partial == null || completeReported) {
+            return null;
+        }
+        completeReported = true;
+        return partial;
+    }
+
+    // 다음 요청 (진행 중인 요청이 없을 때만)
+    private void pump() {
+        Call<JsonObject> call;
+        boolean isFinalize;
+        synchronized (this) {
+            if (failed || inFlight || finalizing) {
+                return;
+            }
+            long samples = pending.size() / 2;
+            if (samples > 0 && (samples >= minChunkSamples || finishing)) {
+                RequestBody body = RequestBody.create(PCM, pending.readByteArray());
+                call = apiService.sendSttChunk(streamId, seq++, sampleRate, body);
+                sentSamples += samples;
+                isFinalize = false;
+            } else if (finishing) {
+                JsonObject request = new JsonObject();
+                request.addProperty("stream_id", streamId);
+                request.addProperty("chunks", seq);
+                request.addProperty("samples", sentSamples);
+                request.addProperty("lang", "ko");
+                request.addProperty("level", "small");
+                request.addProperty("chatIdx", String.valueOf(chatIdx));
+                call = apiService.finalizeStt(request);
+                finalizing = true;
+                isFinalize = true;
+            } else {
+                return;
+            }
+            inFlight = true;
+        }
+        callTracker.enqueue(lane, chatIdx, call, new Callback<JsonObject>() {
+            @Override
+            public void onResponse(Call<JsonObject> c, Response<JsonObject> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    if (response.errorBody() != null) {
+                        response.errorBody().close();
+                    }
+                    if (callTracker.isStale(chatIdx)) {
+                        abandon("HTTP " + response.code());
+                        return;
+                    }
+                    fail("HTTP " + response.code(), response.code() == 404 || response.code() == 405);
+                    return;
+                }
+                JsonObject body = response.body();
+                String text = !isFinalize && body.has("partial") && !body.get("partial").isJsonNull()
+                        ? body.get("partial").getAsString() : null;
+                synchronized (SttStream.this) {
+                    inFlight = false;
+                    if (text != null) {
+                        partial = text;
+                    }
+                }
+                if (isFinalize) {
+                    listener.onFinal(SttStream.this, body);
+                    return;
+                }
+                if (text != null) {
+                    String completePartial = takeCompletePartial();
+                    listener.onPartial(SttStream.this, text, completePartial != null);
+                }
+                pump();
+            }
+
+            @Override
+            public void onFailure(Call<JsonObject> c, Throwable t) {
+                if (c.isCanceled() || callTracker.isStale(chatIdx)) {
+                    abandon(t.getMessage());  // 새 대화가 시작돼 취소 / 스케줄러에서 밀려남
+                    return;
+                }
+                fail(t.getMessage(), false);
+            }
+        });
+    }
+
+    // 지난 대화 : 더 보내지 않고, 발화 스냅샷은 바로 반납 (finish 전이면 finish 에서)
+    private void abandon(String reason) {
+        PcmBufferPool.Buffer toRelease;
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+            abandoned = true;
+            inFlight = false;
+            pending.clear();
+            toRelease = utterance;
+            utterance = null;
+        }
+        ServiceLog.d("SERVICE STT", "STT stream abandoned (chatIdx " + chatIdx + ") : " + reason);
+        if (toRelease != null) {
+            toRelease.release();
+        }
+    }
+
+    private void fail(String reason, boolean unsupported) {
+        boolean notify;
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+            this.unsupported = unsupported;
+            inFlight = false;
+            pending.clear();
+            notify = finishing;
+        }
+        ServiceLog.w("SERVICE STT", "STT stream failed (chatIdx " + chatIdx + ", chunk " + seq + ") : " + reason);
+        if (notify) {
+            listener.onFailed(this, unsupported);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+// TTS 응답 바이트를 메모리에 쌓아두는 버퍼
+// 다운로드 스레드가 write 하는 동안 재생 스레드가 앞부분부터 읽을 수 있음 (디스크 사용 없음)
+// AudioSpool 에서 연 버퍼는 용량이 예산에 잡히고, 참조(재생용 / 다운로드용)가 모두 release 되면 반납됨
+public class TtsAudioStream {
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final AudioSpool spool;  // null 이면 예산 관리 안 함 (캐시 음성)
+    private byte[] data;
+    private int size = 0;
+    private boolean finished = false;
+    private boolean cancelled = false;
+    private boolean playing = false;
+    private int refs;
+    private volatile Runnable onAudible;  // 첫 PCM 을 AudioTrack 에 쓴 직후 한 번 (지연 측정)
+
+    TtsAudioStream(AudioSpool spool) {
+        this.spool = spool;
+        this.data = new byte[INITIAL_CAPACITY];
+        this.refs = 2;
+        spool.opened(INITIAL_CAPACITY);
+    }
+
+    // 이미 받아둔 음성 (캐시), 배열은 복사하지 않으므로 수정 금지
+    public static TtsAudioStream completed(byte[] wav) {
+        TtsAudioStream stream = new TtsAudioStream(wav);
+        stream.finish();
+        return stream;
+    }
+
+    private TtsAudioStream(byte[] data) {
+        this.spool = null;
+        this.data = data;
+        this.size = data.length;
+        this.refs = 1;
+    }
+
+    // 데이터 추가, 취소된 경우 false (다운로드 스레드 하나에서만 호출)
+    // 용량이 모자라면 AudioSpool 예산을 먼저 예약 (예산이 없으면 대기)
+    public boolean write(byte[] src, int offset, int length) {
+        int capacity;
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            capacity = data.length;
+        }
+        int needed = size() + length;
+        if (needed > capacity) {
+            int grownCapacity = Math.max(capacity * 2, needed);
+            if (spool != null) {
+                try {
+                    if (!spool.reserve(this, grownCapacity - capacity)) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            synchronized (this) {
+                byte[] grown = new byte[grownCapacity];
+                System.arraycopy(data, 0, grown, 0, size);
+                data = grown;
+            }
+        }
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            System.arraycopy(src, offset, data, size, length);
+            size += length;
+            notifyAll();
+            return true;
+        }
+    }
+
+    // 다운로드 종료 (정상 / 실패 모두)
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    // 재생 중단 (다운로드도 write 실패로 중단됨)
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            notifyAll();
+        }
+        if (spool != null) {
+            spool.wake();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    // 재생 시작 (재생 중인 버퍼는 예산을 기다리지 않음)
+    public void markPlaying() {
+        synchronized (this) {
+            playing = true;
+        }
+        if (spool != null) {
+            spool.wake();
+        }
+    }
+
+    public synchronized boolean isPlaying() {
+        return playing;
+    }
+
+    // 첫 음성 출력 시 호출할 작업 (재생 대기열에 넣기 전에 설정)
+    public void setOnAudible(Runnable onAudible) {
+        this.onAudible = onAudible;
+    }
+
+    // 재생기가 첫 PCM 을 쓴 직후 호출 (재생 스레드)
+    void audible() {
+        Runnable callback = onAudible;
+        onAudible = null;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    // 참조 해제, 마지막 참조면 용량을 AudioSpool 에 반납
+    public void release() {
+        long freed;
+        synchronized (this) {
+            if (refs <= 0) {
+                return;
+            }
+            refs--;
+            if (refs > 0 || spool == null) {
+                return;
+            }
+            freed = data.length;
+        }
+        spool.free(freed);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // 끝까지 정상적으로 받은 경우 전체 바이트 복사본 (캐시 저장용), 아니면 null
+    public synchronized byte[] toByteArray() {
+        if (!finished || cancelled) {
+            return null;
+        }
+        return Arrays.copyOf(data, size);
+    }
+
+    // position 부터 읽기, 데이터가 올 때까지 대기 / 끝이면 -1
+    public synchronized int read(int position, byte[] dst, int offset, int length) throws InterruptedException {
+        while (position >= size && !finished && !cancelled) {
+            wait();
+        }
+        if (cancelled || position >= size) {
+            return -1;
+        }
+        int n = Math.min(length, size - position);
+        System.arraycopy(data, position, dst, offset, n);
+        return n;
+    }
+
+    // 처음부터 읽는 InputStream (대기 중 인터럽트되면 끝으로 처리)
+    public InputStream newInputStream() {
+        return new InputStream() {
+            private int position = 0;
+
+            @Override
+            public int read() {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                try {
+                    int n = TtsAudioStream.this.read(position, b, off, len);
+                    if (n > 0) {
+                        position += n;
+                    }
+                    return n;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+        };
+    }
+}
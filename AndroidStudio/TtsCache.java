@@ -0,0 +1,307 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 합성된 TTS 음성(WAV) 캐시 (메모리 + 디스크 LRU)
+// - 키는 TTS 요청 JSON 과 같은 값 (text, char, lang, speed)
+// - 메모리 / 디스크 각각 바이트 상한을 넘으면 가장 오래 안 쓴 항목부터 삭제
+// - 디스크 항목은 파일 수정 시각을 마지막 사용 시각으로 써서 서비스를 다시 시작해도 LRU 순서 유지
+// - 디렉터리 스캔은 한 번만 (warmUp 으로 미리, 안 했으면 첫 사용 시)
+// - 잠금은 메모리 맵 / 인덱스 갱신에만, 파일 읽기 / 쓰기 / 삭제는 잠금 밖에서 (디스크가 느려도 메모리 적중은 바로 반환)
+//   삭제와 읽기가 겹쳐 파일이 없으면 그 항목만 미적중으로 처리
+public class TtsCache {
+
+    public static final class Key {
+        public final String text;
+        public final String character;
+        public final String lang;
+        public final String speed;
+        final String id;  // 파일 이름 (SHA-1)
+
+        public Key(String text, String character, String lang, String speed) {
+            this.text = text;
+            this.character = character;
+            this.lang = lang;
+            this.speed = speed;
+            this.id = sha1(character + '\n' + lang + '\n' + speed + '\n' + text);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && id.equals(((Key) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return character + "/" + lang + "/" + speed + " : " + text;
+        }
+    }
+
+    private static final String SUFFIX = ".wav";
+
+    private final File dir;
+    private final long memoryLimit;
+    private final long diskLimit;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private LinkedHashMap<String, Long> disk;  // id -> 파일 크기 (warmUp / 첫 사용 시 로드), 잠금 안에서만 접근
+    private long diskBytes = 0;
+
+    private final AtomicInteger tempSeq = new AtomicInteger();
+
+    private long memoryHits = 0;
+    private long diskHits = 0;
+    private long misses = 0;
+
+    public TtsCache(File dir, long memoryLimit, long diskLimit) {
+        this.dir = dir;
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+    }
+
+    // 디스크 인덱스 미리 로드 (서비스 시작 시 백그라운드에서 한 번, 첫 TTS 요청이 디렉터리 스캔을 기다리지 않게)
+    public void warmUp() {
+        index();
+    }
+
+    // 캐시된 WAV 반환 (없으면 null), 반환한 배열은 수정 금지
+    public byte[] get(Key key) {
+        synchronized (this) {
+            byte[] data = memory.get(key.id);
+            if (data != null) {
+                memoryHits++;
+                return data;
+            }
+        }
+
+        boolean onDisk;
+        LinkedHashMap<String, Long> disk = index();
+        synchronized (this) {
+            onDisk = disk.get(key.id) != null;  // 접근 순서 갱신
+        }
+        if (onDisk) {
+            File file = fileOf(key.id);
+            byte[] data = readFile(file);
+            if (data != null) {
+                file.setLastModified(System.currentTimeMillis());  // 최근 사용 기록
+                synchronized (this) {
+                    putMemory(key.id, data);
+                    diskHits++;
+                }
+                return data;
+            }
+            // 읽을 수 없는 파일 (중간에 삭제된 경우 포함)
+            synchronized (this) {
+                forgetDisk(key.id);
+            }
+            file.delete();
+        }
+        synchronized (this) {
+            misses++;
+        }
+        return null;
+    }
+
+    // 합성 결과 저장 (임시 파일에 쓴 뒤 rename 해서 중간에 끊겨도 깨진 파일이 남지 않음)
+    public void put(Key key, byte[] data) {
+        if (data == null || data.length <= WavUtils.HEADER_SIZE) {
+            return;
+        }
+        synchronized (this) {
+            putMemory(key.id, data);
+        }
+
+        LinkedHashMap<String, Long> disk = index();
+        if (data.length > diskLimit || !dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        File file = fileOf(key.id);
+        File temp = new File(dir, key.id + "." + tempSeq.incrementAndGet() + ".tmp");  // 같은 키를 동시에 써도 겹치지 않게
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+        List<String> evicted;
+        synchronized (this) {
+            forgetDisk(key.id);
+            disk.put(key.id, (long) data.length);
+            diskBytes += data.length;
+            evicted = trimDisk();
+        }
+        deleteFiles(evicted);
+    }
+
+    public void clear() {
+        LinkedHashMap<String, Long> disk = index();
+        List<String> removed;
+        synchronized (this) {
+            memory.clear();
+            memoryBytes = 0;
+            removed = new ArrayList<>(disk.keySet());
+            disk.clear();
+            diskBytes = 0;
+        }
+        deleteFiles(removed);
+    }
+
+    public synchronized float hitRate() {
+        long total = memoryHits + diskHits + misses;
+        return total == 0 ? 0f : (float) (memoryHits + diskHits) / total;
+    }
+
+    public synchronized long lookups() {
+        return memoryHits + diskHits + misses;
+    }
+
+    public synchronized String stats() {
+        return String.format(Locale.US,
+                "hitRate=%.1f%% (memory=%d, disk=%d, miss=%d) memory=%d/%d entries=%d disk=%d/%d entries=%d",
+                hitRate() * 100, memoryHits, diskHits, misses,
+                memoryBytes, memoryLimit, memory.size(),
+                diskBytes, diskLimit, disk != null ? disk.size() : 0);
+    }
+
+    private void putMemory(String id, byte[] data) {
+        if (data.length > memoryLimit / 4) {
+            return;  // 너무 큰 항목은 디스크에만
+        }
+        byte[] old = memory.put(id, data);
+        if (old != null) {
+            memoryBytes -= old.length;
+        }
+        memoryBytes += data.length;
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryLimit && it.hasNext()) {
+            memoryBytes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    // 디스크 인덱스 (처음 한 번만 디렉터리 스캔, 스캔은 잠금 밖에서)
+    private LinkedHashMap<String, Long> index() {
+        synchronized (this) {
+            if (disk != null) {
+                return disk;
+            }
+        }
+        LinkedHashMap<String, Long> loaded = new LinkedHashMap<>(16, 0.75f, true);
+        long loadedBytes = 0;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            long[] modified = new long[files.length];
+            Integer[] order = new Integer[files.length];
+            for (int i = 0; i < files.length; i++) {
+                modified[i] = files[i].lastModified();
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(modified[a], modified[b]));  // 오래 안 쓴 파일부터
+
+            for (int i : order) {
+                File file = files[i];
+                String name = file.getName();
+                if (name.endsWith(SUFFIX)) {
+                    loaded.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                    loadedBytes += file.length();
+                }
+            }
+        }
+
+        List<String> evicted;
+        synchronized (this) {
+            if (disk != null) {
+                return disk;  // 다른 스레드가 먼저 로드
+            }
+            disk = loaded;
+            diskBytes = loadedBytes;
+            evicted = trimDisk();
+        }
+        if (files != null) {
+            for (File file : files) {
+                if (!file.getName().endsWith(SUFFIX)) {
+                    file.delete();  // 쓰다 만 임시 파일
+                }
+            }
+        }
+        deleteFiles(evicted);
+        return loaded;
+    }
+
+    // 상한을 넘는 만큼 인덱스에서 빼고, 지울 파일 목록 반환 (삭제는 잠금 밖에서)
+    private List<String> trimDisk() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = disk.entrySet().iterator();
+        while (diskBytes > diskLimit && it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            evicted.add(entry.getKey());
+            diskBytes -= entry.getValue();
+            it.remove();
+        }
+        return evicted;
+    }
+
+    private void forgetDisk(String id) {
+        Long size = disk.remove(id);
+        if (size != null) {
+            diskBytes -= size;
+        }
+    }
+
+    private void deleteFiles(List<String> ids) {
+        for (String id : ids) {
+            fileOf(id).delete();
+        }
+    }
+
+    private File fileOf(String id) {
+        return new File(dir, id + SUFFIX);
+    }
+
+    private static byte[] readFile(File file) {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            byte[] data = new byte[(int) in.length()];
+            in.readFully(data);
+            return data;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String sha1(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
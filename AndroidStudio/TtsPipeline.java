@@ -0,0 +1,160 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 답변 문장별 TTS 파이프라인
+// - 대화(chatIdx)마다 문장 순번(seq)을 매기고, 동시에 합성 요청하는 수를 maxInFlight 로 제한
+// - 합성이 끝난 순서와 관계없이 seq 순서대로만 재생기로 넘김 (순서 재배치 버퍼)
+// - 앞 문장이 재생되는 동안 다음 문장 합성을 미리 요청
+// - 요청마다 run (clear 할 때마다 증가) 을 붙여서, reset 뒤 같은 chatIdx 로 다시 시작해도
+//   이전 run 의 늦은 complete 나 같은 요청의 중복 complete 는 무시 (inFlight / ready 를 건드리지 않음)
+public class TtsPipeline<T> {
+
+    // 합성 요청 (완료되면 반드시 한 번 complete 호출, 실패 시 audio = null)
+    public interface Synthesizer<T> {
+        void synthesize(Request request);
+    }
+
+    // 순서대로 정렬된 음성 전달 (락 안에서 호출되므로 오래 걸리는 작업 금지)
+    public interface Player<T> {
+        void play(String chatIdx, int seq, T audio);
+    }
+
+    // 재생기로 넘기기 전에 버려지는 음성 정리 (새 대화 / reset)
+    public interface Discarder<T> {
+        void discard(T audio);
+    }
+
+    public static final class Request {
+        public final String chatIdx;
+        public final int seq;
+        public final String text;
+        final int run;
+
+        Request(String chatIdx, int seq, String text, int run) {
+            this.chatIdx = chatIdx;
+            this.seq = seq;
+            this.text = text;
+            this.run = run;
+        }
+    }
+
+    private final int maxInFlight;
+    private final Synthesizer<T> synthesizer;
+    private final Player<T> player;
+    private final Discarder<T> discarder;
+
+    private String chatIdx = null;  // 현재 대화
+    private int run = 0;  // clear 마다 증가 (이전 run 의 요청 구분)
+    private int nextSeq = 0;  // 다음에 매길 순번
+    private int nextPlaySeq = 0;  // 다음에 재생할 순번
+    private int inFlight = 0;
+    private final BitSet started = new BitSet();  // 합성 중인 seq (complete 는 seq 마다 한 번만 반영)
+    private final ArrayDeque<Request> pending = new ArrayDeque<>();
+    private final Map<Integer, T> ready = new HashMap<>();  // 재생 대기 (값이 null 이면 실패한 문장)
+
+    public TtsPipeline(int maxInFlight, Synthesizer<T> synthesizer, Player<T> player) {
+        this(maxInFlight, synthesizer, player, null);
+    }
+
+    public TtsPipeline(int maxInFlight, Synthesizer<T> synthesizer, Player<T> player, Discarder<T> discarder) {
+        this.maxInFlight = maxInFlight;
+        this.synthesizer = synthesizer;
+        this.player = player;
+        this.discarder = discarder;
+    }
+
+    // 문장 추가, 새 chatIdx 가 들어오면 이전 대화 상태는 버림
+    public int submit(String chatIdx, String text) {
+        List<Request> toStart;
+        int seq;
+        synchronized (this) {
+            if (this.chatIdx == null || !this.chatIdx.equals(chatIdx)) {
+                clear();
+                this.chatIdx = chatIdx;
+            }
+            seq = nextSeq++;
+            pending.add(new Request(chatIdx, seq, text, run));
+            toStart = drainPending();
+        }
+        start(toStart);
+        return seq;
+    }
+
+    // 합성 완료 (audio == null 이면 실패로 보고 해당 문장은 건너뜀)
+    // 지난 대화(이전 run)라서 버려졌거나 이미 complete 한 요청이면 false (audio 는 호출한 쪽에서 정리)
+    public boolean complete(Request request, T audio) {
+        List<Request> toStart;
+        synchronized (this) {
+            if (request.run != run || !started.get(request.seq)) {
+                return false;
+            }
+            started.clear(request.seq);
+            inFlight--;
+            ready.put(request.seq, audio);
+            while (ready.containsKey(nextPlaySeq)) {
+                T next = ready.remove(nextPlaySeq);
+                if (next != null) {
+                    player.play(request.chatIdx, nextPlaySeq, next);
+                }
+                nextPlaySeq++;
+            }
+            toStart = drainPending();
+        }
+        start(toStart);
+        return true;
+    }
+
+    public synchronized void reset() {
+        clear();
+        chatIdx = null;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void clear() {
+        run++;
+        started.clear();
+        nextSeq = 0;
+        nextPlaySeq = 0;
+        inFlight = 0;
+        pending.clear();
+        if (discarder != null) {
+            for (T audio : ready.values()) {
+                if (audio != null) {
+                    discarder.discard(audio);
+                }
+            }
+        }
+        ready.clear();
+    }
+
+    private List<Request> drainPending() {
+        List<Request> toStart = new ArrayList<>();
+        while (inFlight < maxInFlight && !pending.isEmpty()) {
+            Request request = pending.poll();
+            inFlight++;
+            started.set(request.seq);
+            toStart.add(request);
+        }
+        return toStart;
+    }
+
+    // 합성 요청은 락 밖에서 (캐시 등으로 바로 complete 가 불려도 안전하도록)
+    private void start(List<Request> toStart) {
+        for (Request request : toStart) {
+            synthesizer.synthesize(request);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 대화 번호 상태 (녹음 스레드 / API 레인 / 스트림 레인에서 동시에 접근)
+// - issued : 발급한 마지막 chatIdx (STT 요청마다 증가)
+// - success : 대화 스트림을 시작한 가장 최근 chatIdx (chatIdxSuccess), 더 작은 값으로는 되돌아가지 않음
+public class TurnState {
+    private final AtomicInteger issued = new AtomicInteger(0);
+    private final AtomicInteger success = new AtomicInteger(-1);
+
+    // 새 chatIdx 발급
+    public int next() {
+        return issued.incrementAndGet();
+    }
+
+    // turn 이 마지막으로 발급한 번호일 때만 다음 chatIdx 발급 (그 사이 새 발화가 있었으면 -1)
+    public int nextAfter(int turn) {
+        return issued.compareAndSet(turn, turn + 1) ? turn + 1 : -1;
+    }
+
+    // 대화 스트림 시작, 더 최신 대화가 이미 시작됐으면 false
+    public boolean advance(int turn) {
+        while (true) {
+            int current = success.get();
+            if (turn < current) {
+                return false;
+            }
+            if (turn == current || success.compareAndSet(current, turn)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean advance(String chatIdx) {
+        return advance(CallTracker.parseTurn(chatIdx));
+    }
+
+    // 현재 진행 중인 대화인지
+    public boolean isCurrent(String chatIdx) {
+        return CallTracker.parseTurn(chatIdx) == success.get();
+    }
+
+    // 현재 대화보다 오래된 대화인지
+    public boolean isOlder(int turn) {
+        return turn < success.get();
+    }
+
+    public int success() {
+        return success.get();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mylittlejarvisandroid;
+
+import okhttp3.RequestBody;
+
+// STT 업로드용 음성 인코더 (녹음 스냅샷 -> multipart file 파트 본문)
+// - format() 값은 uploadAudio 의 "format" 파트로 같이 보내서 서버가 디코더를 고르게 함
+// - 본문은 업로드가 끝날 때까지 pcm 을 참조하므로 pcm 반납은 응답 / 실패 후에
+public interface UplinkEncoder {
+    String format();  // wav, mulaw, adpcm, aac
+
+    String fileName();
+
+    RequestBody encode(PcmBufferPool.Buffer pcm, int sampleRate);
+}
@@ -0,0 +1,18 @@
+package com.example.mylittlejarvisandroid;
+
+// 음성 활동 감지(VAD) 엔진 공통 인터페이스
+// 녹음 루프는 frameSamples() 단위로 읽어서 process 로 넘기고,
+// 비활성 판정이 hangoverSamples() 이상 이어지면 발화가 끝난 것으로 본다.
+public interface VoiceActivityDetector {
+
+    // 새 샘플 추가 후 현재 판정 반환 (length 가 프레임 크기와 달라도 내부에서 프레임 단위로 처리)
+    boolean process(short[] samples, int offset, int length);
+
+    // 한 번에 읽을 샘플 수 (판정 단위)
+    int frameSamples();
+
+    // 발화 종료로 볼 때까지의 유예 샘플 수
+    int hangoverSamples();
+
+    void reset();
+}
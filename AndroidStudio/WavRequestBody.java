@@ -0,0 +1,50 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// 메모리의 PCM을 WAV 헤더와 함께 바로 전송하는 RequestBody (파일 저장 없이 업로드)
+// OkHttp 재시도 시 writeTo가 여러 번 불릴 수 있으므로 pcm은 녹음 버퍼가 아닌 스냅샷이어야 함
+// 헤더는 sink 에 직접, PCM 은 버퍼의 리틀 엔디안 청크로 기록해서 writeTo 중에는 할당하지 않음
+public class WavRequestBody extends RequestBody {
+    private static final MediaType AUDIO_WAV = MediaType.parse("audio/wav");
+
+    private final PcmBufferPool.Buffer pcm;
+    private final int sampleRate;
+
+    public WavRequestBody(PcmBufferPool.Buffer pcm, int sampleRate) {
+        this.pcm = pcm;
+        this.sampleRate = sampleRate;
+    }
+
+    public int sampleCount() {
+        return pcm.length();
+    }
+
+    @Override
+    public MediaType contentType() {
+        return AUDIO_WAV;
+    }
+
+    @Override
+    public long contentLength() {
+        return WavUtils.HEADER_SIZE + pcm.length() * 2L;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        WavUtils.writePcmHeader(sink, pcm.length() * 2, sampleRate);
+
+        int length = pcm.length();
+        for (int i = 0; i < length; i += pcm.chunkSamples()) {
+            ByteBuffer chunk = pcm.encode(i, Math.min(pcm.chunkSamples(), length - i));
+            while (chunk.hasRemaining()) {
+                sink.write(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.mylittlejarvisandroid;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// TTS 음성 스트리밍 재생 (AudioTrack MODE_STREAM)
+// 다운로드 중인 TtsAudioStream 에서 WAV 헤더를 읽어 실제 샘플 레이트로 AudioTrack 을 설정하고, PCM 이 도착하는 대로 재생
+// AudioTrack 은 재생 스레드에서만 다룸
+// 넘겨받은 스트림은 재생이 끝나거나 버려질 때 release (재생용 참조 반납)
+public class WavStreamPlayer {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final PlaybackQueue<TtsAudioStream> queue = new PlaybackQueue<>();  // 꺼내기와 current 지정이 stop 과 겹치지 않음
+    private final Thread thread;
+    private volatile boolean released = false;
+
+    private AudioTrack audioTrack;
+    private int trackSampleRate;
+    private int trackChannels;
+    private int trackEncoding;
+
+    public WavStreamPlayer() {
+        thread = new Thread(this::playLoop, "TTS Playback");
+        thread.start();
+    }
+
+    // 재생 대기열에 추가 (순서대로 재생)
+    public void enqueue(TtsAudioStream stream) {
+        queue.enqueue(stream);
+    }
+
+    public boolean isPlaying() {
+        return queue.isBusy();
+    }
+
+    // 현재 재생 중지 및 대기열 초기화
+    public void stop() {
+        List<TtsAudioStream> dropped = new ArrayList<>();
+        TtsAudioStream playing = queue.stop(dropped);
+        for (TtsAudioStream stream : dropped) {
+            stream.cancel();
+            stream.release();
+        }
+        if (playing != null) {
+            playing.cancel();
+        }
+    }
+
+    public void release() {
+        released = true;
+        stop();
+        thread.interrupt();
+    }
+
+    private void playLoop() {
+        try {
+            while (!released) {
+                TtsAudioStream stream = queue.take();
+                stream.markPlaying();
+                try {
+                    playStream(stream);
+                } catch (IOException e) {
+                    ServiceLog.e("SERVICE", "Error playing WAV stream: " + e.getMessage());
+                } finally {
+                    queue.finish(stream);
+                    stream.release();
+                }
+
+                if (stream.isCancelled()) {
+                    // 남은 버퍼 버리고 즉시 정지
+                    if (audioTrack != null) {
+                        audioTrack.pause();
+                        audioTrack.flush();
+                    }
+                } else if (queue.isEmpty() && audioTrack != null) {
+                    audioTrack.stop();  // MODE_STREAM : 이미 쓴 데이터는 끝까지 재생 후 정지
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (audioTrack != null) {
+                audioTrack.release();
+                audioTrack = null;
+            }
+        }
+    }
+
+    private void playStream(TtsAudioStream stream) throws IOException {
+        InputStream in = stream.newInputStream();
+        WavUtils.WavFormat format = WavUtils.readWavHeader(in);
+        if (format == null || format.audioFormat != 1 || (format.bitsPerSample != 16 && format.bitsPerSample != 8)) {
+            ServiceLog.e("SERVICE", "Unsupported WAV stream");
+            return;
+        }
+        ServiceLog.d("SERVICE", "WAV stream sampleRate : " + format.sampleRate + ", channels : " + format.channels);
+
+        AudioTrack track = prepareTrack(format);
+        if (track.getPlayState() != AudioTrack.PLAYSTATE_PLAYING) {
+            track.play();
+        }
+
+        // 프레임 단위로만 write (남는 바이트는 다음 write 앞에 붙임)
+        int frameSize = format.frameSize();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int carry = 0;
+        int bytesRead;
+        while ((bytesRead = in.read(buffer, carry, buffer.length - carry)) != -1) {
+            int total = carry + bytesRead;
+            int aligned = total - total % frameSize;
+            if (aligned > 0) {
+                track.write(buffer, 0, aligned);
+                stream.audible();
+            }
+            carry = total - aligned;
+            System.arraycopy(buffer, aligned, buffer, 0, carry);
+        }
+    }
+
+    // 포맷이 같으면 기존 AudioTrack 재사용 (문장 사이 끊김 방지)
+    private AudioTrack prepareTrack(WavUtils.WavFormat format) {
+        int channelMask = format.channels == 2 ? AudioFormat.CHANNEL_OUT_STEREO : AudioFormat.CHANNEL_OUT_MONO;
+        int encoding = format.bitsPerSample == 8 ? AudioFormat.ENCODING_PCM_8BIT : AudioFormat.ENCODING_PCM_16BIT;
+
+        if (audioTrack == null || trackSampleRate != format.sampleRate
+                || trackChannels != format.channels || trackEncoding != encoding) {
+            if (audioTrack != null) {
+                audioTrack.stop();
+                audioTrack.release();
+            }
+            int minBufferSize = AudioTrack.getMinBufferSize(format.sampleRate, channelMask, encoding);
+            audioTrack = new AudioTrack.Builder()
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_MEDIA)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                            .build())
+                    .setAudioFormat(new AudioFormat.Builder()
+                            .setEncoding(encoding)
+                            .setSampleRate(format.sampleRate)  // Server output 기준 (WAV 헤더 값)
+                            .setChannelMask(channelMask)
+                            .build())
+                    .setBufferSizeInBytes(Math.max(minBufferSize, CHUNK_SIZE * 2))
+                    .setTransferMode(AudioTrack.MODE_STREAM)
+                    .build();
+            trackSampleRate = format.sampleRate;
+            trackChannels = format.channels;
+            trackEncoding = encoding;
+        }
+
+        float volume = getVolume();
+        audioTrack.setVolume(volume);  // 음량 적용
+        return audioTrack;
+    }
+
+    // 음량 값 (0.0 ~ 1.0, 설정 수신 시 파싱)
+    private static float getVolume() {
+        return Bridge.config().soundVolume;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mylittlejarvisandroid;
+
+import okhttp3.RequestBody;
+
+// 기본 업로드 포맷 : 16비트 PCM WAV (무압축, 32KB/s)
+public class WavUplinkEncoder implements UplinkEncoder {
+    @Override
+    public String format() {
+        return "wav";
+    }
+
+    @Override
+    public String fileName() {
+        return "stt.wav";
+    }
+
+    @Override
+    public RequestBody encode(PcmBufferPool.Buffer pcm, int sampleRate) {
+        return new WavRequestBody(pcm, sampleRate);
+    }
+}
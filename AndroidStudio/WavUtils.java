@@ -0,0 +1,142 @@
+package com.example.mylittlejarvisandroid;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okio.Buffer;
+import okio.BufferedSink;
+
+// WAV(PCM 16비트 모노) 관련 공용 함수
+public class WavUtils {
+    public static final int HEADER_SIZE = 44;
+
+    // WAV 헤더 작성 (writePcmHeader 와 같은 44바이트)
+    public static byte[] buildWavHeader(int totalAudioLen, int sampleRate) {
+        Buffer header = new Buffer();
+        try {
+            writePcmHeader(header, totalAudioLen, sampleRate);
+        } catch (IOException e) {
+            throw new AssertionError(e);  // 메모리 버퍼 : 발생하지 않음
+        }
+        return header.readByteArray();
+    }
+
+    // PCM 16비트 모노 WAV 헤더를 sink 에 직접 작성 (헤더 내용은 여기 한 곳에서만 정의)
+    public static void writePcmHeader(BufferedSink sink, int totalAudioLen, int sampleRate) throws IOException {
+        sink.writeUtf8("RIFF");
+        sink.writeIntLe(totalAudioLen + 36);
+        sink.writeUtf8("WAVEfmt ");
+        sink.writeIntLe(16);
+        sink.writeShortLe(1);  // PCM
+        sink.writeShortLe(1);  // 모노
+        sink.writeIntLe(sampleRate);
+        sink.writeIntLe(sampleRate * 2);  // byteRate (16비트 모노)
+        sink.writeShortLe(2);  // blockAlign
+        sink.writeShortLe(16);
+        sink.writeUtf8("data");
+        sink.writeIntLe(totalAudioLen);
+    }
+
+    // 압축 포맷(μ-law, IMA ADPCM 등) WAV 헤더 크기 : fmt 확장(cbSize + extra) + fact 청크 포함
+    public static int compressedHeaderSize(int extraSize) {
+        return 58 + extraSize;
+    }
+
+    // 압축 포맷 WAV 헤더 작성 (모노), fact 청크에 실제 샘플 수 기록
+    public static void writeCompressedHeader(BufferedSink sink, int formatTag, int sampleRate, int byteRate,
+                                             int blockAlign, int bitsPerSample, byte[] extra,
+                                             int sampleCount, int dataLen) throws IOException {
+        sink.writeUtf8("RIFF");
+        sink.writeIntLe(compressedHeaderSize(extra.length) - 8 + dataLen + (dataLen & 1));
+        sink.writeUtf8("WAVEfmt ");
+        sink.writeIntLe(18 + extra.length);
+        sink.writeShortLe(formatTag);
+        sink.writeShortLe(1);  // 모노
+        sink.writeIntLe(sampleRate);
+        sink.writeIntLe(byteRate);
+        sink.writeShortLe(blockAlign);
+        sink.writeShortLe(bitsPerSample);
+        sink.writeShortLe(extra.length);  // cbSize
+        sink.write(extra);
+        sink.writeUtf8("fact");
+        sink.writeIntLe(4);
+        sink.writeIntLe(sampleCount);
+        sink.writeUtf8("data");
+        sink.writeIntLe(dataLen);
+    }
+
+    // 샘플 레이트는 24~27 바이트에 저장됨 (리틀 엔디안)
+    public static int getSampleRate(byte[] header) {
+        return ((header[27] & 0xFF) << 24) | ((header[26] & 0xFF) << 16)
+                | ((header[25] & 0xFF) << 8) | (header[24] & 0xFF);
+    }
+
+    // WAV 포맷 정보 (fmt 청크)
+    public static class WavFormat {
+        public int audioFormat;  // 1: PCM
+        public int channels;
+        public int sampleRate;
+        public int bitsPerSample;
+
+        public int frameSize() {
+            return channels * bitsPerSample / 8;
+        }
+    }
+
+    // 스트림에서 WAV 헤더를 읽고 data 청크 시작 위치에서 멈춤 (헤더가 잘못됐으면 null)
+    // 스트리밍 응답은 data 크기가 0 또는 0xFFFFFFFF 일 수 있으므로 크기는 사용하지 않고 끝까지 읽을 것
+    public static WavFormat readWavHeader(InputStream in) throws IOException {
+        byte[] buf = new byte[16];
+        if (!readFully(in, buf, 12) || buf[0] != 'R' || buf[1] != 'I' || buf[2] != 'F' || buf[3] != 'F'
+                || buf[8] != 'W' || buf[9] != 'A' || buf[10] != 'V' || buf[11] != 'E') {
+            return null;
+        }
+
+        WavFormat format = null;
+        while (readFully(in, buf, 8)) {
+            int chunkSize = readIntLE(buf, 4);
+            boolean isFmt = buf[0] == 'f' && buf[1] == 'm' && buf[2] == 't' && buf[3] == ' ';
+            boolean isData = buf[0] == 'd' && buf[1] == 'a' && buf[2] == 't' && buf[3] == 'a';
+            if (isData) {
+                return format;
+            }
+            int remaining = chunkSize + (chunkSize & 1);  // 청크는 2바이트 정렬
+            if (isFmt && chunkSize >= 16) {
+                if (!readFully(in, buf, 16)) {
+                    return null;
+                }
+                format = new WavFormat();
+                format.audioFormat = readShortLE(buf, 0);
+                format.channels = readShortLE(buf, 2);
+                format.sampleRate = readIntLE(buf, 4);
+                format.bitsPerSample = readShortLE(buf, 14);
+                remaining -= 16;
+            }
+            if (in.skip(remaining) < remaining) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean readFully(InputStream in, byte[] dst, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(dst, read, length - read);
+            if (n < 0) {
+                return false;
+            }
+            read += n;
+        }
+        return true;
+    }
+
+    private static int readShortLE(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | ((b[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int readIntLE(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | ((b[offset + 1] & 0xFF) << 8)
+                | ((b[offset + 2] & 0xFF) << 16) | ((b[offset + 3] & 0xFF) << 24);
+    }
+}
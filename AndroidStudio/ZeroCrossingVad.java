@@ -0,0 +1,116 @@
+package com.example.mylittlejarvisandroid;
+
+// 프레임(20ms) 단위 에너지 + 영교차율(ZCR) VAD (WebRTC VAD 처럼 짧은 프레임으로 판정)
+// - 프레임 평균 에너지가 배경 소음 추정치보다 충분히 크면 음성 후보
+// - 유성음(모음)은 ZCR 이 낮고, 무성음(ㅅ, ㅊ 등)은 ZCR 이 높지만 에너지가 작으므로 기준을 따로 둠
+// - 배경 소음은 비활성 프레임에서만 천천히 따라가고, 더 조용해지면 바로 내려감
+// - 음성 후보가 onsetFrames 연속이어야 활성 (딸깍 소리 같은 순간 잡음 무시)
+public class ZeroCrossingVad implements VoiceActivityDetector {
+    private static final float FRAME_SEC = 0.02f;  // 20ms
+    private static final float HANGOVER_SEC = 0.3f;  // 발화 종료 유예
+    private static final int ONSET_FRAMES = 3;  // 60ms 연속이면 활성
+    private static final int INIT_FRAMES = 10;  // 처음 200ms 는 소음 추정만
+
+    private static final float VOICED_RATIO = 4.0f;  // 유성음 : 소음 대비 +6dB
+    private static final float UNVOICED_RATIO = 2.0f;  // 무성음 : 소음 대비 +3dB (ZCR 조건 추가)
+    private static final float VOICED_MAX_ZCR = 0.25f;  // 16kHz 기준 약 2kHz 이하
+    private static final float UNVOICED_MIN_ZCR = 0.3f;
+    private static final float MIN_ENERGY = 1e-6f;  // 약 -60dBFS (무음에서 소음 추정이 0 으로 가지 않게)
+    private static final float NOISE_UP = 0.01f;  // 소음 추정 상승 속도
+    private static final float NOISE_DOWN = 0.2f;  // 소음 추정 하강 속도
+
+    private final int frameSamples;
+    private final int hangoverSamples;
+
+    private int filled = 0;  // 현재 프레임에 모은 샘플 수
+    private double energySum = 0;
+    private int crossings = 0;
+    private short prevSample = 0;
+
+    private int frames = 0;
+    private float noiseEnergy = MIN_ENERGY;
+    private int speechRun = 0;  // 연속 음성 후보 프레임 수
+    private boolean active = false;
+
+    public ZeroCrossingVad(int sampleRate) {
+        this.frameSamples = (int) (sampleRate * FRAME_SEC);
+        this.hangoverSamples = (int) (sampleRate * HANGOVER_SEC);
+    }
+
+    @Override
+    public boolean process(short[] samples, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            short s = samples[i];
+            float x = s / 32768.0f;
+            energySum += x * x;
+            if ((s >= 0) != (prevSample >= 0)) {
+                crossings++;
+            }
+            prevSample = s;
+            if (++filled == frameSamples) {
+                endFrame();
+            }
+        }
+        return active;
+    }
+
+    private void endFrame() {
+        float energy = (float) (energySum / frameSamples);
+        float zcr = (float) crossings / frameSamples;
+        filled = 0;
+        energySum = 0;
+        crossings = 0;
+
+        if (frames < INIT_FRAMES) {
+            // 시작 구간은 배경 소음으로 간주 (최솟값 쪽으로 추정)
+            noiseEnergy = frames == 0 ? Math.max(energy, MIN_ENERGY) : Math.max(Math.min(noiseEnergy, energy), MIN_ENERGY);
+            frames++;
+            return;
+        }
+        frames++;
+
+        boolean voiced = energy > noiseEnergy * VOICED_RATIO && zcr < VOICED_MAX_ZCR;
+        boolean unvoiced = energy > noiseEnergy * UNVOICED_RATIO && zcr > UNVOICED_MIN_ZCR;
+        boolean speech = voiced || unvoiced;
+
+        if (speech) {
+            speechRun++;
+            if (speechRun >= ONSET_FRAMES) {
+                active = true;
+            }
+        } else {
+            speechRun = 0;
+            active = false;
+        }
+
+        // 배경 소음 추정 갱신 (음성 후보 프레임은 제외)
+        if (energy < noiseEnergy) {
+            noiseEnergy += NOISE_DOWN * (energy - noiseEnergy);
+        } else if (!speech) {
+            noiseEnergy += NOISE_UP * (energy - noiseEnergy);
+        }
+        noiseEnergy = Math.max(noiseEnergy, MIN_ENERGY);
+    }
+
+    @Override
+    public int frameSamples() {
+        return frameSamples;
+    }
+
+    @Override
+    public int hangoverSamples() {
+        return hangoverSamples;
+    }
+
+    @Override
+    public void reset() {
+        filled = 0;
+        energySum = 0;
+        crossings = 0;
+        prevSample = 0;
+        frames = 0;
+        noiseEnergy = MIN_ENERGY;
+        speechRun = 0;
+        active = false;
+    }
+}
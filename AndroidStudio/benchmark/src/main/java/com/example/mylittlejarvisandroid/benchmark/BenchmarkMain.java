@@ -0,0 +1,20 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// JMH 실행 진입점 : 일반 JMH 옵션 그대로 받고, ns/op 옆에 op 당 할당 바이트(gc.alloc.rate.norm)가 나오도록 GC 프로파일러를 항상 추가
+// 예) java -jar target/benchmarks.jar VadBenchmark -p type=zcr
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
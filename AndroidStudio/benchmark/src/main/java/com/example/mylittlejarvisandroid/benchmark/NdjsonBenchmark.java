@@ -0,0 +1,76 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import com.example.mylittlejarvisandroid.ConversationStreamReader;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+
+// 대화 스트림(NDJSON) 파싱 벤치마크
+// 서버는 줄마다 지금까지의 reply_list 전체를 다시 보내므로 답변 문장 수가 늘수록 줄이 길어짐
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NdjsonBenchmark {
+
+    @Param({"3", "10"})
+    int replies;
+
+    private byte[] stream;
+
+    @Setup
+    public void setup() {
+        stream = NdjsonFixtures.conversationStream(replies).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 이전 fetchStreamingData 방식 (BufferedReader + 줄마다 JsonParser 로 전체 트리 생성)
+    @Benchmark
+    public JsonObject lineParser() throws IOException {
+        JsonObject lastJsonObject = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(stream)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    try {
+                        lastJsonObject = JsonParser.parseString(line).getAsJsonObject();
+                    } catch (JsonSyntaxException e) {
+                        // 벤치마크 입력은 항상 올바른 JSON
+                    }
+                }
+            }
+        }
+        return lastJsonObject;
+    }
+
+    // 현재 fetchStreamingData 방식 (새 답변만 읽는 ConversationStreamReader)
+    @Benchmark
+    public int streamReader() throws IOException {
+        ConversationStreamReader reader = new ConversationStreamReader(new Buffer().write(stream), (chatIdx, index, reply) -> {
+        });
+        reader.readAll();
+        return reader.replies().size();
+    }
+}
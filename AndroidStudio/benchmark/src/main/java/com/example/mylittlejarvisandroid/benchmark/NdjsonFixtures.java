@@ -0,0 +1,27 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+// 대화 스트림 응답 예시 (/conversation_stream 형식)
+// 줄마다 query, chat_idx, 지금까지의 reply_list 전체
+public final class NdjsonFixtures {
+
+    private NdjsonFixtures() {
+    }
+
+    public static String conversationStream(int replies) {
+        StringBuilder stream = new StringBuilder();
+        StringBuilder replyList = new StringBuilder();
+        for (int i = 0; i < replies; i++) {
+            if (i > 0) {
+                replyList.append(',');
+            }
+            replyList.append("{\"answer_jp\":\"こんにちは、今日はいい天気ですね。散歩に行きませんか？").append(i)
+                    .append("\",\"answer_ko\":\"안녕하세요, 오늘 날씨가 좋네요. 산책하러 갈까요?").append(i)
+                    .append("\",\"answer_en\":\"Hello, the weather is nice today. Shall we go for a walk? ").append(i)
+                    .append("\"}");
+            stream.append("{\"query\":{\"text\":\"What should we do today?\"},\"chat_idx\":\"12\",\"reply_list\":[")
+                    .append(replyList)
+                    .append("]}\n");
+        }
+        return stream.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import java.util.Random;
+
+// 벤치마크용 합성 PCM (16비트 모노, 시드 고정)
+// 실제 녹음 대신 배경 소음 + 피치 / 음량이 변하는 배음 신호로 발화를 흉내냄
+public final class PcmFixtures {
+    public static final int SAMPLE_RATE = 16000;
+
+    private PcmFixtures() {
+    }
+
+    // 배경 소음만 (약 -50dBFS)
+    public static short[] silence(float seconds, long seed) {
+        Random random = new Random(seed);
+        short[] pcm = new short[(int) (SAMPLE_RATE * seconds)];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = clip(random.nextGaussian() * 100);
+        }
+        return pcm;
+    }
+
+    // 배경 소음 + 발화 (처음부터 끝까지)
+    public static short[] speech(float seconds, long seed) {
+        return conversation(seconds, 0f, seconds, seed);
+    }
+
+    // 배경 소음 속에 [speechStart, speechEnd) 초 구간만 발화
+    public static short[] conversation(float seconds, float speechStart, float speechEnd, long seed) {
+        Random random = new Random(seed);
+        short[] pcm = new short[(int) (SAMPLE_RATE * seconds)];
+        double phase = 0;
+        for (int i = 0; i < pcm.length; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double v = random.nextGaussian() * 100;
+            if (t >= speechStart && t < speechEnd) {
+                double f0 = 150 + 40 * Math.sin(2 * Math.PI * 3 * t);  // 피치 변화
+                double envelope = 0.6 + 0.4 * Math.sin(2 * Math.PI * 4 * t);  // 음절 단위 음량 변화
+                phase += 2 * Math.PI * f0 / SAMPLE_RATE;
+                for (int h = 1; h <= 10; h++) {
+                    v += envelope * 3000 / h * Math.sin(h * phase + h);
+                }
+            }
+            pcm[i] = clip(v);
+        }
+        return pcm;
+    }
+
+    // simpleVad 입력 형식 (-1.0 ~ 1.0)
+    public static float[] toFloat(short[] pcm) {
+        float[] data = new float[pcm.length];
+        for (int i = 0; i < pcm.length; i++) {
+            data[i] = pcm[i] / 32768.0f;
+        }
+        return data;
+    }
+
+    private static short clip(double v) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(v)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import com.example.mylittlejarvisandroid.AdpcmUplinkEncoder;
+import com.example.mylittlejarvisandroid.AudioRingBuffer;
+import com.example.mylittlejarvisandroid.MuLawUplinkEncoder;
+import com.example.mylittlejarvisandroid.PcmBufferPool;
+import com.example.mylittlejarvisandroid.UplinkEncoder;
+import com.example.mylittlejarvisandroid.WavUplinkEncoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+// STT 업로드 본문 인코딩 벤치마크 (포맷별 writeTo, sink 는 버리는 blackhole)
+// aac 는 기기 MediaCodec 이 필요해서 제외
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UplinkBenchmark {
+    private static final int SAMPLE_RATE = PcmFixtures.SAMPLE_RATE;
+
+    @Param({"wav", "mulaw", "adpcm"})
+    String format;
+
+    @Param({"2", "10"})
+    float seconds;
+
+    private RequestBody body;
+    private final BufferedSink sink = Okio.buffer(Okio.blackhole());
+
+    @Setup
+    public void setup() {
+        short[] speech = PcmFixtures.speech(seconds, 3);
+        AudioRingBuffer ring = new AudioRingBuffer(speech.length);
+        ring.write(speech, 0, speech.length);
+        PcmBufferPool.Buffer pcm = new PcmBufferPool(1, speech.length, speech.length).acquire();
+        pcm.copyFrom(ring.last(speech.length, new AudioRingBuffer.View()));
+
+        UplinkEncoder encoder;
+        if ("mulaw".equals(format)) {
+            encoder = new MuLawUplinkEncoder();
+        } else if ("adpcm".equals(format)) {
+            encoder = new AdpcmUplinkEncoder();
+        } else {
+            encoder = new WavUplinkEncoder();
+        }
+        body = encoder.encode(pcm, SAMPLE_RATE);
+    }
+
+    @Benchmark
+    public long writeTo() throws IOException {
+        body.writeTo(sink);
+        sink.flush();
+        return body.contentLength();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import com.example.mylittlejarvisandroid.EnergyRatioVad;
+import com.example.mylittlejarvisandroid.SpectralFluxVad;
+import com.example.mylittlejarvisandroid.VoiceActivityDetector;
+import com.example.mylittlejarvisandroid.ZeroCrossingVad;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// VAD 벤치마크
+// - simpleVad / highPassFilter : 서비스 상수(30초 구간, 최근 1.25초, 100Hz) 그대로 한 번 판정
+// - evaluateVad : 엔진별로 녹음 루프가 한 번 읽는 프레임(energy 0.5초, zcr 20ms, spectral 256 샘플) 처리
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VadBenchmark {
+    private static final int SAMPLE_RATE = PcmFixtures.SAMPLE_RATE;
+    private static final float VAD_CONTEXT_SEC = 30f;
+    private static final float VAD_LAST_SEC = 1.25f;
+    private static final float VAD_THRESHOLD = 1.0f;
+    private static final float VAD_FREQ_THRESHOLD = 100.0f;
+
+    @State(Scope.Thread)
+    public static class Context {
+        float[] source;
+        float[] data;
+
+        @Setup
+        public void setup() {
+            // 30초 구간 끝 3초가 발화
+            source = PcmFixtures.toFloat(PcmFixtures.conversation(VAD_CONTEXT_SEC, 27f, 30f, 1));
+            data = new float[source.length];
+        }
+    }
+
+    // highPassFilter 가 입력을 덮어쓰므로 매번 원본 복사 (복사 비용 포함)
+    @Benchmark
+    public boolean simpleVad(Context context) {
+        System.arraycopy(context.source, 0, context.data, 0, context.source.length);
+        return EnergyRatioVad.simpleVad(context.data, SAMPLE_RATE, VAD_LAST_SEC, VAD_THRESHOLD, VAD_FREQ_THRESHOLD);
+    }
+
+    @Benchmark
+    public float[] highPassFilter(Context context) {
+        System.arraycopy(context.source, 0, context.data, 0, context.source.length);
+        EnergyRatioVad.highPassFilter(context.data, VAD_FREQ_THRESHOLD, SAMPLE_RATE);
+        return context.data;
+    }
+
+    @State(Scope.Thread)
+    public static class Engine {
+        @Param({"energy", "zcr", "spectral"})
+        String type;
+
+        VoiceActivityDetector vad;
+        short[] pcm;
+        int frame;
+        int offset;
+
+        @Setup
+        public void setup() {
+            switch (type) {
+                case "zcr":
+                    vad = new ZeroCrossingVad(SAMPLE_RATE);
+                    break;
+                case "spectral":
+                    vad = new SpectralFluxVad(SAMPLE_RATE);
+                    break;
+                default:
+                    vad = new EnergyRatioVad(SAMPLE_RATE, VAD_CONTEXT_SEC, VAD_LAST_SEC, VAD_THRESHOLD, VAD_FREQ_THRESHOLD);
+                    break;
+            }
+            // 발화 / 무음이 섞인 10초를 반복 입력
+            pcm = PcmFixtures.conversation(10f, 3f, 7f, 2);
+            frame = vad.frameSamples();
+            offset = 0;
+        }
+    }
+
+    // 프레임 하나 처리 (녹음 루프의 evaluateVad 1회)
+    @Benchmark
+    public boolean evaluateVad(Engine engine) {
+        if (engine.offset + engine.frame > engine.pcm.length) {
+            engine.offset = 0;
+        }
+        boolean active = engine.vad.process(engine.pcm, engine.offset, engine.frame);
+        engine.offset += engine.frame;
+        return active;
+    }
+}
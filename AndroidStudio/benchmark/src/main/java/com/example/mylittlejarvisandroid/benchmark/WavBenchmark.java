@@ -0,0 +1,80 @@
+package com.example.mylittlejarvisandroid.benchmark;
+
+import com.example.mylittlejarvisandroid.AudioRingBuffer;
+import com.example.mylittlejarvisandroid.PcmBufferPool;
+import com.example.mylittlejarvisandroid.WavRequestBody;
+import com.example.mylittlejarvisandroid.WavUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okio.BufferedSink;
+import okio.Okio;
+
+// WAV 직렬화 벤치마크
+// - buildWavHeader : 44바이트 헤더 생성
+// - snapshot : 녹음 원형 버퍼 구간 -> 풀 버퍼 복사 (sendRecordedAudio)
+// - writeTo : 업로드 / saveWavFile 과 같은 경로로 헤더 + PCM 을 sink 에 기록 (sink 는 버리는 blackhole)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WavBenchmark {
+    private static final int SAMPLE_RATE = PcmFixtures.SAMPLE_RATE;
+
+    @Param({"2", "10"})
+    float seconds;
+
+    private AudioRingBuffer ring;
+    private final AudioRingBuffer.View view = new AudioRingBuffer.View();
+    private final PcmBufferPool pool = new PcmBufferPool(3, SAMPLE_RATE * 10, SAMPLE_RATE * 30);
+    private PcmBufferPool.Buffer pcm;
+    private WavRequestBody body;
+    private final BufferedSink sink = Okio.buffer(Okio.blackhole());
+
+    @Setup
+    public void setup() {
+        short[] speech = PcmFixtures.speech(seconds, 3);
+        ring = new AudioRingBuffer(SAMPLE_RATE * 30);
+        ring.write(speech, 0, speech.length);
+
+        pcm = pool.acquire();
+        pcm.copyFrom(ring.last(speech.length, view));
+        body = new WavRequestBody(pcm, SAMPLE_RATE);
+    }
+
+    @Benchmark
+    public byte[] buildWavHeader() {
+        return WavUtils.buildWavHeader(pcm.length() * 2, SAMPLE_RATE);
+    }
+
+    @Benchmark
+    public int snapshot() {
+        PcmBufferPool.Buffer buffer = pool.acquire();
+        buffer.copyFrom(ring.last((int) (SAMPLE_RATE * seconds), view));
+        int length = buffer.length();
+        buffer.release();
+        return length;
+    }
+
+    @Benchmark
+    public long writeTo() throws IOException {
+        body.writeTo(sink);
+        sink.flush();
+        return body.contentLength();
+    }
+}
@@ -0,0 +1,27 @@
+package android.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+// 테스트용 android.util.Log (ServiceLog 가 쓰는 부분만, 표준 에러로 출력)
+public final class Log {
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+
+    private Log() {
+    }
+
+    public static int println(int priority, String tag, String msg) {
+        System.err.println(priority + "/" + tag + ": " + msg);
+        return 0;
+    }
+
+    public static String getStackTraceString(Throwable tr) {
+        StringWriter out = new StringWriter();
+        tr.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.mylittlejarvisandroid;
+
+import com.example.mylittlejarvisandroid.benchmark.PcmFixtures;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// IMA ADPCM 인코딩 / 디코딩 왕복 : 블록 헤더, 무음 / 최대 진폭, 음성 오차
+public class AdpcmUplinkEncoderTest {
+    private static final int SPB = AdpcmUplinkEncoder.SAMPLES_PER_BLOCK;
+
+    @Test
+    public void firstNibblesMatchImaReference() {
+        // 0 -> 100 : step 7 에서 diff 100 -> nibble 7 (delta 0 + 7 + 3 + 1 = 11), index 0 + 8
+        // 100 (예측 11) : step 16 에서 diff 89 -> nibble 7 (delta 2 + 16 + 8 + 4 = 30), index 8 + 8
+        short[] pcm = {0, 100, 100};
+        byte[] block = new byte[AdpcmUplinkEncoder.BLOCK_ALIGN];
+        int index = AdpcmUplinkEncoder.encodeBlock(pcm, 0, pcm.length, 0, block);
+        assertEquals(0, block[0]);
+        assertEquals(0, block[1]);
+        assertEquals(0, block[2]);
+        assertEquals(0x77, block[4] & 0xff);
+
+        short[] decoded = new short[SPB];
+        AdpcmUplinkEncoder.decodeBlock(block, 0, decoded, 0);
+        assertEquals(0, decoded[0]);
+        assertEquals(11, decoded[1]);
+        assertEquals(41, decoded[2]);
+        assertTrue(index >= 0 && index <= 88);
+    }
+
+    @Test
+    public void matchesImaReferenceCodec() {
+        // 같은 표를 공유하는 왕복만으로는 표가 틀려도 통과하므로 IMA 참조 구현(표 포함)과 바이트 단위로 비교
+        short[] pcm = PcmFixtures.conversation(2f, 0.5f, 1.5f, 17);
+        byte[] block = new byte[AdpcmUplinkEncoder.BLOCK_ALIGN];
+        short[] decoded = new short[SPB];
+        int index = 0;
+        for (int offset = 0; offset + SPB <= pcm.length; offset += SPB) {
+            ReferenceIma reference = new ReferenceIma(pcm[offset], index);
+            index = AdpcmUplinkEncoder.encodeBlock(pcm, offset, SPB, index, block);
+            AdpcmUplinkEncoder.decodeBlock(block, 0, decoded, 0);
+            for (int i = 1; i < SPB; i++) {
+                int nibble = reference.encode(pcm[offset + i]);
+                int b = block[4 + ((i - 1) >> 1)] & 0xff;
+                assertEquals("block " + offset / SPB + " sample " + i, nibble, (i & 1) != 0 ? b & 0x0f : b >> 4);
+                assertEquals(reference.predictor, decoded[i]);
+            }
+            assertEquals(reference.index, index);
+        }
+    }
+
+    @Test
+    public void blockHeaderKeepsFirstSampleExactly() {
+        short[] pcm = PcmFixtures.speech(1f, 5);
+        byte[] block = new byte[AdpcmUplinkEncoder.BLOCK_ALIGN];
+        short[] decoded = new short[SPB];
+        int index = 0;
+        for (int offset = 0; offset + SPB <= pcm.length; offset += SPB) {
+            int blockIndex = index;
+            index = AdpcmUplinkEncoder.encodeBlock(pcm, offset, SPB, index, block);
+            assertEquals(blockIndex, block[2] & 0xff);
+            AdpcmUplinkEncoder.decodeBlock(block, 0, decoded, 0);
+            assertEquals(pcm[offset], decoded[0]);  // 블록마다 독립 디코딩
+        }
+    }
+
+    @Test
+    public void silenceDecodesToSilence() throws Exception {
+        short[] silence = new short[SPB * 3 + 17];  // 마지막 블록은 일부만
+        for (short sample : decodeBody(silence)) {
+            assertEquals(0, sample);
+        }
+    }
+
+    @Test
+    public void fullScaleDoesNotWrapAround() throws Exception {
+        short[] square = new short[SPB * 4];
+        for (int i = 0; i < square.length; i++) {
+            square[i] = (i / 40) % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;  // 최대 진폭 사각파 (400Hz)
+        }
+        short[] decoded = decodeBody(square);
+        int settled = 0;
+        for (int i = 0; i < square.length; i++) {
+            // 부호가 뒤집히는 오버플로가 없고, 전환 후 step 이 커지는 16샘플 안에 최대 진폭을 따라감
+            int sinceEdge = i % 40;
+            if (sinceEdge >= 16) {
+                assertTrue("sample " + i + " : " + square[i] + " -> " + decoded[i], (long) square[i] * decoded[i] > 0);
+                assertTrue("sample " + i + " : " + decoded[i], Math.abs(decoded[i]) > 16000);
+                settled++;
+            }
+        }
+        assertTrue(settled > 0);
+
+        short[] constant = new short[SPB * 2];
+        Arrays.fill(constant, Short.MAX_VALUE);
+        for (short sample : decodeBody(constant)) {
+            assertEquals(Short.MAX_VALUE, sample);  // 블록 첫 샘플이 그대로, 이후 diff 0
+        }
+    }
+
+    @Test
+    public void speechRoundTripErrorIsBounded() throws Exception {
+        short[] speech = PcmFixtures.speech(3f, 13);
+        short[] decoded = decodeBody(speech);
+        assertTrue(MuLawUplinkEncoderTest.snrDb(speech, decoded) > 15);  // 4비트 ADPCM 음성 SNR 약 20dB
+        long sumAbs = 0;
+        for (int i = 0; i < speech.length; i++) {
+            sumAbs += Math.abs(speech[i] - decoded[i]);
+        }
+        assertTrue(sumAbs / speech.length < 600);
+    }
+
+    // IMA ADPCM 참조 인코더 (IMA / DVI 권고안의 표와 절차 그대로)
+    private static final class ReferenceIma {
+        private static final int[] INDEX_ADJUST = {-1, -1, -1, -1, 2, 4, 6, 8};
+        private static final int[] STEP_SIZE = {
+                7, 8, 9, 10, 11, 12, 13, 14, 16, 17,
+                19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+                50, 55, 60, 66, 73, 80, 88, 97, 107, 118,
+                130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+                337, 371, 408, 449, 494, 544, 598, 658, 724, 796,
+                876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+                2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358,
+                5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+                15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+        };
+
+        int predictor;
+        int index;
+
+        ReferenceIma(int predictor, int index) {
+            this.predictor = predictor;
+            this.index = index;
+        }
+
+        int encode(int sample) {
+            int step = STEP_SIZE[index];
+            int diff = sample - predictor;
+            int sign = diff < 0 ? 8 : 0;
+            if (sign != 0) {
+                diff = -diff;
+            }
+            int delta = 0;
+            int vpdiff = step >> 3;
+            if (diff >= step) {
+                delta = 4;
+                diff -= step;
+                vpdiff += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                delta |= 2;
+                diff -= step;
+                vpdiff += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                delta |= 1;
+                vpdiff += step;
+            }
+            predictor += sign != 0 ? -vpdiff : vpdiff;
+            predictor = Math.max(-32768, Math.min(32767, predictor));
+            index = Math.max(0, Math.min(88, index + INDEX_ADJUST[delta]));
+            return delta | sign;
+        }
+    }
+
+    // 업로드 본문 (WAV 헤더 + 블록) 을 만들고 본문 길이 확인 후 다시 16비트로 (fact 샘플 수만큼)
+    static short[] decodeBody(short[] pcm) throws Exception {
+        PcmBufferPool.Buffer buffer = UplinkTestSupport.buffer(pcm);
+        okhttp3.RequestBody body = new AdpcmUplinkEncoder().encode(buffer, PcmFixtures.SAMPLE_RATE);
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        assertEquals(body.contentLength(), sink.size());
+
+        sink.skip(WavUtils.compressedHeaderSize(2));
+        int blocks = AdpcmUplinkEncoder.blockCount(pcm.length);
+        assertEquals((long) blocks * AdpcmUplinkEncoder.BLOCK_ALIGN, sink.size());
+        byte[] data = sink.readByteArray();
+        short[] decoded = new short[blocks * SPB];
+        for (int b = 0; b < blocks; b++) {
+            AdpcmUplinkEncoder.decodeBlock(data, b * AdpcmUplinkEncoder.BLOCK_ALIGN, decoded, b * SPB);
+        }
+        for (int i = pcm.length; i < decoded.length; i++) {
+            assertTrue("padding " + decoded[i], Math.abs(decoded[i]) < 2048);  // 마지막 블록 나머지는 무음 쪽으로
+        }
+        return Arrays.copyOf(decoded, pcm.length);
+    }
+}
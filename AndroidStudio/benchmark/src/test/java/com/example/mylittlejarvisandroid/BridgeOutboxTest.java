@@ -0,0 +1,248 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// 가짜 Sink / 수동 스케줄러로 묶어 보내기 확인
+// 하나면 그대로, 여러 개면 순서대로 봉투, postLatest 는 아직 안 보낸 같은 method 의 latest 만 대체, flush 와 post 가 겹쳐도 gameObject 안 순서 유지
+public class BridgeOutboxTest {
+    private static final long WINDOW_MS = 30;
+
+    private final RecordingSink sink = new RecordingSink();
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final BridgeOutbox outbox = new BridgeOutbox(sink, scheduler, WINDOW_MS);
+
+    @Test
+    public void singleMessageIsSentAsIs() {
+        outbox.post("Manager", "OnSTTResult", "안녕");
+        assertTrue(sink.sent.isEmpty());  // 창이 끝나기 전에는 보내지 않음
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(WINDOW_MS, scheduler.lastDelayMs);
+
+        scheduler.runAll();
+        assertEquals(Collections.singletonList("Manager.OnSTTResult(안녕)"), sink.sent);
+        assertEquals("posted 1, superseded 0, sent 1", outbox.stats());
+    }
+
+    @Test
+    public void messagesInWindowAreWrappedInOrder() {
+        outbox.post("Manager", "OnSTTResult", "1");
+        outbox.post("Manager", "OnChatReply", "2");
+        outbox.post("Manager", "OnSTTResult", "3");
+        outbox.post("Overlay", "OnState", "speaking");
+        assertEquals(1, scheduler.tasks.size());  // 창 하나에 예약도 하나
+
+        scheduler.runAll();
+        assertEquals(2, sink.sent.size());
+        assertEquals("Manager." + BridgeOutbox.BATCH_METHOD + "(OnSTTResult=1, OnChatReply=2, OnSTTResult=3)", sink.sent.get(0));
+        assertEquals("Overlay.OnState(speaking)", sink.sent.get(1));
+
+        // 다음 창은 새로 예약
+        outbox.post("Manager", "OnChatReply", "4");
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runAll();
+        assertEquals("Manager.OnChatReply(4)", sink.sent.get(2));
+    }
+
+    @Test
+    public void postLatestSupersedesOnlyPendingLatestOfSameMethod() {
+        outbox.postLatest("Manager", "OnPartial", "sent");
+        scheduler.runAll();  // 이미 보낸 값은 대체 대상 아님
+
+        outbox.post("Manager", "OnPartial", "plain");  // post 로 넣은 값은 유지
+        outbox.postLatest("Manager", "OnPartial", "a");
+        outbox.postLatest("Manager", "OnState", "listening");
+        outbox.postLatest("Other", "OnPartial", "other");  // 다른 gameObject 는 별개
+        outbox.postLatest("Manager", "OnPartial", "ab");
+        outbox.post("Manager", "OnPartial", "plain2");
+        outbox.postLatest("Manager", "OnPartial", "abc");
+        scheduler.runAll();
+
+        assertEquals(Arrays.asList("Manager.OnPartial(sent)",
+                "Manager." + BridgeOutbox.BATCH_METHOD + "(OnPartial=plain, OnState=listening, OnPartial=plain2, OnPartial=abc)",
+                "Other.OnPartial(other)"), sink.sent);
+        assertEquals("posted 8, superseded 2, sent 3", outbox.stats());
+    }
+
+    @Test
+    public void flushRacingPostsKeepsOrderPerGameObject() throws Exception {
+        int posters = 4;
+        int messages = 20000;
+        AtomicBoolean posting = new AtomicBoolean(true);
+        sink.slow = true;
+
+        TestThreads.runAll(posters + 2, thread -> {
+            if (thread < posters) {
+                try {
+                    for (int i = 0; i < messages; i++) {
+                        outbox.post("Object" + thread, "OnSeq", String.valueOf(i));
+                    }
+                } finally {
+                    if (thread == 0) {
+                        posting.set(false);
+                    }
+                }
+            } else {
+                // 예약된 flush 와 직접 호출한 flush 가 겹치도록 두 스레드에서
+                while (posting.get()) {
+                    Runnable task = scheduler.tasks.poll();
+                    if (task != null) {
+                        task.run();
+                    } else {
+                        outbox.flush();
+                    }
+                }
+            }
+        });
+        outbox.flush();
+        scheduler.runAll();
+
+        Map<String, List<Integer>> received = sink.payloadsByObject();
+        assertEquals(posters, received.size());
+        for (int thread = 0; thread < posters; thread++) {
+            List<Integer> seq = received.get("Object" + thread);
+            assertEquals(messages, seq.size());
+            for (int i = 0; i < messages; i++) {
+                assertEquals("Object" + thread + " #" + i, i, (int) seq.get(i));
+            }
+        }
+    }
+
+    // 받은 메시지를 "gameObject.method(payload)" 로 기록, 봉투는 풀어서 "method=payload" 목록으로
+    private static final class RecordingSink implements BridgeOutbox.Sink {
+        final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        private final List<String[]> raw = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger calls = new AtomicInteger();
+        volatile boolean slow = false;  // 가끔 전송을 늦춰 flush 끼리 겹치게
+
+        @Override
+        public void send(String gameObject, String method, String payload) {
+            if (slow && calls.incrementAndGet() % 16 == 0) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            raw.add(new String[]{gameObject, method, payload});
+            if (!BridgeOutbox.BATCH_METHOD.equals(method)) {
+                sent.add(gameObject + "." + method + "(" + payload + ")");
+                return;
+            }
+            List<String> inner = new ArrayList<>();
+            for (JsonElement element : events(payload)) {
+                JsonObject event = element.getAsJsonObject();
+                inner.add(event.get("method").getAsString() + "=" + event.get("payload").getAsString());
+            }
+            sent.add(gameObject + "." + method + "(" + String.join(", ", inner) + ")");
+        }
+
+        Map<String, List<Integer>> payloadsByObject() {
+            Map<String, List<Integer>> result = new HashMap<>();
+            synchronized (raw) {
+                for (String[] message : raw) {
+                    List<Integer> list = result.computeIfAbsent(message[0], k -> new ArrayList<>());
+                    if (BridgeOutbox.BATCH_METHOD.equals(message[1])) {
+                        for (JsonElement element : events(message[2])) {
+                            list.add(Integer.parseInt(element.getAsJsonObject().get("payload").getAsString()));
+                        }
+                    } else {
+                        list.add(Integer.parseInt(message[2]));
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static JsonArray events(String envelope) {
+            return JsonParser.parseString(envelope).getAsJsonObject().getAsJsonArray("events");
+        }
+    }
+
+    // schedule 한 작업을 모아 두고 테스트가 직접 실행 (지연은 기록만)
+    private static final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        volatile long lastDelayMs = -1;
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            lastDelayMs = unit.toMillis(delay);
+            tasks.add(command);
+            return null;  // BridgeOutbox 는 사용하지 않음
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>(tasks);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
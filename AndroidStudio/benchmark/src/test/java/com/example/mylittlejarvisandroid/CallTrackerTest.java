@@ -0,0 +1,151 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// 새 대화 시작(startTurn)과 호출 등록(track)이 여러 스레드에서 겹쳐도
+// 지난 대화의 호출은 빠짐없이 취소되고 최신 대화의 호출은 살아 있는지
+public class CallTrackerTest {
+    private static final int TRACKERS = 6;
+    private static final int CALLS_PER_THREAD = 5000;
+    private static final int LAST_TURN = 2000;
+
+    private final ServiceScheduler scheduler = new ServiceScheduler();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void olderCallsAreAlwaysCancelledUnderContention() throws Exception {
+        CallTracker tracker = new CallTracker(scheduler);
+        AtomicInteger latest = new AtomicInteger(0);
+        AtomicBoolean starting = new AtomicBoolean(true);
+        List<FakeCall<Object>> all = new CopyOnWriteArrayList<>();
+
+        TestThreads.runAll(TRACKERS + 2, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (thread == 0) {
+                // 대화 시작 : 앞으로만 진행, 가끔 지난 번호로 시작 시도
+                try {
+                    for (int turn = 1; turn <= LAST_TURN; turn++) {
+                        assertTrue(tracker.startTurn(turn));
+                        latest.set(turn);
+                        if (turn > 1 && random.nextInt(4) == 0) {
+                            assertFalse(tracker.startTurn(turn - 1));
+                        }
+                    }
+                } finally {
+                    starting.set(false);
+                }
+                return;
+            }
+            if (thread == 1) {
+                // 읽기 : 한 번 지난 대화는 계속 지난 대화
+                int stale = 0;
+                while (starting.get()) {
+                    int current = latest.get();
+                    if (current > 1) {
+                        assertTrue(tracker.isStale(current - 1));
+                    }
+                    assertTrue(stale == 0 || tracker.isStale(stale));
+                    stale = Math.max(stale, current - 1);
+                }
+                return;
+            }
+            for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                int turn = Math.max(0, latest.get() + random.nextInt(-2, 2));  // 지난 대화 / 현재 / 다음 대화
+                FakeCall<Object> call = new FakeCall<>(turn);
+                all.add(call);
+                if (!tracker.track(turn, call)) {
+                    assertTrue(call.isCanceled());
+                }
+            }
+        });
+
+        // 등록된 어떤 번호보다 큰 대화를 시작해서 그 전 대화는 모두 정리 (등록은 최대 LAST_TURN + 1)
+        int next = LAST_TURN + 2;
+        assertTrue(tracker.startTurn(next));
+        for (FakeCall<Object> call : all) {
+            assertTrue("turn " + call.turn + " not cancelled", call.isCanceled());
+        }
+
+        FakeCall<Object> current = new FakeCall<>(next);
+        assertTrue(tracker.track(next, current));
+        assertFalse(current.isCanceled());
+        FakeCall<Object> stale = new FakeCall<>(next - 1);
+        assertFalse(tracker.track(next - 1, stale));
+        assertTrue(stale.isCanceled());
+    }
+
+    @Test
+    public void callsOfTheLatestTurnSurviveOlderStarts() throws Exception {
+        CallTracker tracker = new CallTracker(scheduler);
+        assertTrue(tracker.startTurn(10));
+        List<FakeCall<Object>> calls = new CopyOnWriteArrayList<>();
+        TestThreads.runAll(TRACKERS, thread -> {
+            for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                if (thread % 2 == 0) {
+                    FakeCall<Object> call = new FakeCall<>(10);
+                    calls.add(call);
+                    assertTrue(tracker.track(10, call));
+                } else {
+                    assertFalse(tracker.startTurn(9 - i % 9));  // 지난 대화 시작은 거절
+                }
+            }
+        });
+        for (FakeCall<Object> call : calls) {
+            assertFalse(call.isCanceled());
+        }
+        tracker.cancelAll();
+        for (FakeCall<Object> call : calls) {
+            assertTrue(call.isCanceled());
+        }
+    }
+
+    @Test
+    public void completedCallsAreUntracked() throws Exception {
+        CallTracker tracker = new CallTracker(scheduler);
+        tracker.startTurn(1);
+        AtomicInteger responses = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        FakeCall<Object> call = new FakeCall<>(1);
+        tracker.enqueue(scheduler.api, 1, call, new Callback<Object>() {
+            @Override
+            public void onResponse(Call<Object> c, Response<Object> response) {
+                responses.incrementAndGet();
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<Object> c, Throwable t) {
+                done.countDown();
+            }
+        });
+        call.callback().onResponse(call, Response.success("ok"));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, responses.get());
+
+        // 응답 처리가 끝난 호출은 새 대화가 시작돼도 다시 취소하지 않음
+        Thread.sleep(50);
+        tracker.startTurn(2);
+        assertFalse(call.isCanceled());
+    }
+}
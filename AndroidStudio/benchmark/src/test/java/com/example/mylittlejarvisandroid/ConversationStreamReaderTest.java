@@ -0,0 +1,98 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// 생성 중인 답변을 언제 완성으로 보는지 : 닫는 괄호 / 따옴표는 안쪽이 문장 끝 부호일 때만
+public class ConversationStreamReaderTest {
+    private final Buffer stream = new Buffer();
+    private final List<String> sealed = new ArrayList<>();
+    private final ConversationStreamReader reader = new ConversationStreamReader(stream,
+            (chatIdx, index, reply) -> sealed.add(index + ":" + reply.answerJp));
+
+    @Test
+    public void quoteFollowedByNarrationIsNotSealedEarly() throws Exception {
+        line("「…」");
+        line("「…」と言って");
+        line("「…」と言って笑った。");
+
+        assertTrue(reader.readLine());
+        assertTrue(reader.readLine());
+        assertEquals(Collections.emptyList(), sealed);  // 인용 뒤에 문장이 이어지는 중
+
+        assertTrue(reader.readLine());
+        assertEquals(Collections.singletonList("0:「…」と言って笑った。"), sealed);
+        assertFalse(reader.readLine());
+        assertEquals(1, sealed.size());
+    }
+
+    @Test
+    public void closingAfterStopIsSealed() throws Exception {
+        line("「すごい！」");
+        line("「すごい！」", "『「えっ？」』");
+        line("「すごい！」", "『「えっ？」』", "(Really?)");
+        line("「すごい！」", "『「えっ？」』", "(Really?)", "そうですね…");
+
+        reader.readAll();
+        assertEquals(Arrays.asList("0:「すごい！」", "1:『「えっ？」』", "2:(Really?)", "3:そうですね…"), sealed);
+    }
+
+    @Test
+    public void openQuoteIsSealedByNextReplyOrStreamEnd() throws Exception {
+        line("「こんにちは」");
+        line("「こんにちは」", "(笑)");
+
+        assertTrue(reader.readLine());
+        assertEquals(Collections.emptyList(), sealed);
+        assertTrue(reader.readLine());
+        assertEquals(Collections.singletonList("0:「こんにちは」"), sealed);  // 다음 답변이 붙음
+
+        assertFalse(reader.readLine());  // 스트림 끝 : 남은 답변도 완성
+        assertEquals(Arrays.asList("0:「こんにちは」", "1:(笑)"), sealed);
+    }
+
+    @Test
+    public void firstLineIsReportedOnceBeforeAnyReply() throws Exception {
+        List<String> events = new ArrayList<>();
+        ConversationStreamReader lineReader = new ConversationStreamReader(stream,
+                (chatIdx, index, reply) -> events.add("reply " + index),
+                chatIdx -> events.add("first line " + chatIdx));
+        stream.writeUtf8("{not json\n");  // 읽지 못한 줄은 첫 줄이 아님
+        line("生成中");
+        line("生成中です。", "次");
+
+        assertTrue(lineReader.readLine());
+        assertEquals(Collections.emptyList(), events);
+        assertTrue(lineReader.readLine());
+        assertEquals(Collections.singletonList("first line 1"), events);  // 완성된 답변이 없어도 첫 줄 도착
+        lineReader.readAll();
+        assertEquals(Arrays.asList("first line 1", "reply 0", "reply 1"), events);
+    }
+
+    // 서버처럼 줄마다 지금까지의 reply_list 전체
+    private void line(String... answers) {
+        JsonArray replies = new JsonArray();
+        for (String answer : answers) {
+            JsonObject reply = new JsonObject();
+            reply.addProperty("answer_jp", answer);
+            replies.add(reply);
+        }
+        JsonObject line = new JsonObject();
+        line.addProperty("chat_idx", "1");
+        line.add("reply_list", replies);
+        stream.writeUtf8(line.toString()).writeByte('\n');
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.mylittlejarvisandroid;
+
+import com.example.mylittlejarvisandroid.benchmark.PcmFixtures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// 누적합으로 판정하는 EnergyRatioVad.process 가 매 프레임 전체 구간을 다시 계산하는 simpleVad 와
+// (highPassFilter 의 y[i] = alpha * x[i] 동작 포함) 프레임마다 같은 판정을 내는지, 원형 버퍼가 여러 바퀴 돌아도 같은지
+public class EnergyRatioVadTest {
+    private static final int SAMPLE_RATE = PcmFixtures.SAMPLE_RATE;
+
+    @Test
+    public void matchesSimpleVadWithFilterAcrossWraps() {
+        // 3초 구간 : 60초 동안 원형 버퍼가 20바퀴
+        assertSameDecisions(3f, 1.25f, 1.0f, 100f, SAMPLE_RATE / 2, signal(60f, 11));
+    }
+
+    @Test
+    public void matchesSimpleVadWithoutFilter() {
+        assertSameDecisions(3f, 1.25f, 1.3f, 0f, SAMPLE_RATE / 2, signal(60f, 12));
+    }
+
+    @Test
+    public void matchesSimpleVadWhenFramesStraddleTheWrap() {
+        // 구간 길이의 약수가 아닌 프레임 : 한 바퀴가 프레임 중간에서 끝남
+        assertSameDecisions(2.5f, 1.0f, 1.0f, 100f, 1237, signal(45f, 13));
+    }
+
+    @Test
+    public void matchesSimpleVadWithServiceSettings() {
+        // MyBackgroundService 와 같은 30초 / 1.25초 / 1.0 / 100Hz, 원형 버퍼 세 바퀴
+        assertSameDecisions(30f, 1.25f, 1.0f, 100f, SAMPLE_RATE / 2, signal(95f, 14));
+    }
+
+    private static void assertSameDecisions(float contextSec, float lastSec, float vadThd, float freqThd,
+                                            int frameLength, short[] pcm) {
+        EnergyRatioVad vad = new EnergyRatioVad(SAMPLE_RATE, contextSec, lastSec, vadThd, freqThd);
+        int window = (int) (SAMPLE_RATE * contextSec);
+        float[] reference = new float[window];
+        int active = 0;
+        int frames = 0;
+
+        for (int offset = 0; offset + frameLength <= pcm.length; offset += frameLength) {
+            boolean incremental = vad.process(pcm, offset, frameLength);
+
+            // 이전 방식 : 최근 contextSec 초를 매번 float 로 바꿔 전체 판정 (highPassFilter 가 배열을 덮어씀)
+            int end = offset + frameLength;
+            int length = Math.min(end, window);
+            for (int i = 0; i < length; i++) {
+                reference[i] = pcm[end - length + i] / 32768.0f;
+            }
+            boolean full = EnergyRatioVad.simpleVad(reference, length, SAMPLE_RATE, lastSec, vadThd, freqThd);
+
+            assertEquals("frame " + frames + " (sample " + end + ")", full, incremental);
+            frames++;
+            if (full) {
+                active++;
+            }
+        }
+        // 판정이 한쪽으로만 나오면 비교 의미가 없음
+        assertTrue("active " + active + "/" + frames, active > 0 && active < frames);
+    }
+
+    // 무음과 발화가 번갈아 나오는 신호 (구간 길이는 시드마다 다름)
+    private static short[] signal(float seconds, long seed) {
+        short[] pcm = new short[(int) (SAMPLE_RATE * seconds)];
+        Random random = new Random(seed);
+        int pos = 0;
+        boolean speaking = false;
+        while (pos < pcm.length) {
+            float segment = 1f + random.nextFloat() * 4f;
+            short[] part = speaking ? PcmFixtures.speech(segment, random.nextLong()) : PcmFixtures.silence(segment, random.nextLong());
+            int length = Math.min(part.length, pcm.length - pos);
+            System.arraycopy(part, 0, pcm, pos, length);
+            pos += length;
+            speaking = !speaking;
+        }
+        return pcm;
+    }
+}
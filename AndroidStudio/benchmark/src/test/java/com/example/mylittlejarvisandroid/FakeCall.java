@@ -0,0 +1,64 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// 테스트용 retrofit Call : enqueue 한 콜백을 잡아두고, 취소 여부만 기록
+final class FakeCall<T> implements Call<T> {
+    final int turn;
+    private final AtomicBoolean canceled = new AtomicBoolean();
+    private volatile Callback<T> callback;
+
+    FakeCall(int turn) {
+        this.turn = turn;
+    }
+
+    Callback<T> callback() {
+        return callback;
+    }
+
+    @Override
+    public Response<T> execute() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void enqueue(Callback<T> callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return callback != null;
+    }
+
+    @Override
+    public void cancel() {
+        canceled.set(true);
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled.get();
+    }
+
+    @Override
+    public Call<T> clone() {
+        return new FakeCall<>(turn);
+    }
+
+    @Override
+    public Request request() {
+        return new Request.Builder().url("http://localhost/").build();
+    }
+
+    @Override
+    public Timeout timeout() {
+        return Timeout.NONE;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.mylittlejarvisandroid;
+
+import com.example.mylittlejarvisandroid.benchmark.PcmFixtures;
+
+import org.junit.Test;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// G.711 μ-law 인코딩 / 디코딩 왕복 오차가 구간(segment) 양자화 간격 안인지
+public class MuLawUplinkEncoderTest {
+
+    @Test
+    public void referenceCodes() {
+        // G.711 표 기준 값 (0 -> 0xFF, 최대 / 최소 -> 0x80 / 0x00, 복원값 ±32124)
+        assertEquals((byte) 0xFF, MuLawUplinkEncoder.encodeSample((short) 0));
+        assertEquals((byte) 0x80, MuLawUplinkEncoder.encodeSample(Short.MAX_VALUE));
+        assertEquals((byte) 0x00, MuLawUplinkEncoder.encodeSample(Short.MIN_VALUE));
+        assertEquals(0, MuLawUplinkEncoder.decodeSample((byte) 0xFF));
+        assertEquals(0, MuLawUplinkEncoder.decodeSample((byte) 0x7F));  // -0
+        assertEquals(32124, MuLawUplinkEncoder.decodeSample((byte) 0x80));
+        assertEquals(-32124, MuLawUplinkEncoder.decodeSample((byte) 0x00));
+    }
+
+    @Test
+    public void matchesG711ReferenceForEveryInput() {
+        // G.711 참조 구현 (구간 끝값 표로 segment 검색) 과 모든 16비트 입력 / 모든 코드 비교
+        int[] segmentEnd = {0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF, 0x1FFF};
+        for (int x = Short.MIN_VALUE; x <= Short.MAX_VALUE; x++) {
+            int value = x >> 2;
+            int mask = 0xFF;
+            if (value < 0) {
+                value = -value;
+                mask = 0x7F;
+            }
+            value = Math.min(value, 8159) + (0x84 >> 2);
+            int segment = 0;
+            while (segment < 8 && value > segmentEnd[segment]) {
+                segment++;
+            }
+            int expected = segment >= 8 ? 0x7F ^ mask : ((segment << 4) | ((value >> (segment + 1)) & 0x0F)) ^ mask;
+            assertEquals("x " + x, (byte) expected, MuLawUplinkEncoder.encodeSample((short) x));
+        }
+        for (int code = 0; code < 256; code++) {
+            int u = ~code & 0xFF;
+            int t = (((u & 0x0F) << 3) + 0x84) << ((u & 0x70) >> 4);
+            int expected = (u & 0x80) != 0 ? 0x84 - t : t - 0x84;
+            assertEquals("code " + code, expected, MuLawUplinkEncoder.decodeSample((byte) code));
+        }
+    }
+
+    @Test
+    public void everyCodeSurvivesDecodeThenEncode() {
+        for (int code = 0; code < 256; code++) {
+            if (code == 0x7F) {
+                continue;  // -0 은 +0 (0xFF) 으로 인코딩
+            }
+            short pcm = MuLawUplinkEncoder.decodeSample((byte) code);
+            assertEquals("code " + Integer.toHexString(code), (byte) code, MuLawUplinkEncoder.encodeSample(pcm));
+        }
+    }
+
+    @Test
+    public void roundTripErrorStaysWithinSegmentStep() {
+        for (int x = Short.MIN_VALUE; x <= Short.MAX_VALUE; x++) {
+            byte code = MuLawUplinkEncoder.encodeSample((short) x);
+            int y = MuLawUplinkEncoder.decodeSample(code);
+            int segment = ((~code & 0xFF) >> 4) & 0x07;
+            int step = 8 << segment;  // 16비트 기준 구간 간격 (0 구간 8 ~ 7 구간 1024)
+            assertTrue("x " + x + " -> " + y, Math.abs(x - y) <= step);
+            assertTrue("sign flipped : x " + x + " -> " + y, (long) x * y >= 0);
+        }
+    }
+
+    @Test
+    public void silenceAndFullScaleBuffers() throws Exception {
+        short[] silence = new short[1001];  // 홀수 길이 : 패딩 바이트
+        short[] fullScale = new short[1000];
+        for (int i = 0; i < fullScale.length; i++) {
+            fullScale[i] = i % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;
+        }
+        for (short sample : decodeBody(silence)) {
+            assertEquals(0, sample);
+        }
+        short[] decoded = decodeBody(fullScale);
+        for (int i = 0; i < decoded.length; i++) {
+            assertEquals(i % 2 == 0 ? 32124 : -32124, decoded[i]);
+        }
+    }
+
+    @Test
+    public void speechRoundTripKeepsSignal() throws Exception {
+        short[] speech = PcmFixtures.speech(2f, 11);
+        short[] decoded = decodeBody(speech);
+        assertTrue(snrDb(speech, decoded) > 30);  // μ-law 음성 SNR 약 35~38dB
+    }
+
+    // 업로드 본문 (WAV 헤더 + μ-law) 을 만들고 본문 길이 확인 후 다시 16비트로
+    static short[] decodeBody(short[] pcm) throws Exception {
+        PcmBufferPool.Buffer buffer = UplinkTestSupport.buffer(pcm);
+        okhttp3.RequestBody body = new MuLawUplinkEncoder().encode(buffer, PcmFixtures.SAMPLE_RATE);
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        assertEquals(body.contentLength(), sink.size());
+
+        sink.skip(WavUtils.compressedHeaderSize(0));
+        short[] decoded = new short[pcm.length];
+        for (int i = 0; i < pcm.length; i++) {
+            decoded[i] = MuLawUplinkEncoder.decodeSample(sink.readByte());
+        }
+        assertEquals(pcm.length & 1, sink.size());  // 2바이트 정렬 패딩
+        return decoded;
+    }
+
+    static double snrDb(short[] expected, short[] actual) {
+        double signal = 0;
+        double noise = 0;
+        for (int i = 0; i < expected.length; i++) {
+            signal += (double) expected[i] * expected[i];
+            double e = expected[i] - actual[i];
+            noise += e * e;
+        }
+        return 10 * Math.log10(signal / Math.max(noise, 1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.mylittlejarvisandroid;
+
+import com.example.mylittlejarvisandroid.benchmark.PcmFixtures;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// 녹음 루프 (원형 버퍼 기록 -> VAD -> 발화 구간 스냅샷 -> WAV 청크 변환) 가 워밍업 후 할당하지 않는지 확인
+public class PcmBufferPoolTest {
+    private static final int SAMPLE_RATE = PcmFixtures.SAMPLE_RATE;
+    private static final int CONTEXT_SAMPLES = SAMPLE_RATE * 30;  // MyBackgroundService 와 같은 30초
+    private static final int WARMUP_FRAMES = 4000;
+    private static final int FRAMES = 20000;  // 0.5초 프레임 약 3시간
+    private static final int UTTERANCE_FRAMES = 8;  // 4초마다 발화 하나 전송
+
+    private final AudioRingBuffer ring = new AudioRingBuffer(CONTEXT_SAMPLES);
+    private final AudioRingBuffer.View view = new AudioRingBuffer.View();
+    private final PcmBufferPool pool = new PcmBufferPool(3, SAMPLE_RATE * 10, CONTEXT_SAMPLES);
+    private final VoiceActivityDetector vad = new EnergyRatioVad(SAMPLE_RATE, 30f, 1.5f, 1.3f, 100f);
+    private final short[] speech = PcmFixtures.conversation(20f, 2f, 12f, 7);
+    private final short[] frame = new short[vad.frameSamples()];
+    private int readPos = 0;
+    private long checksum = 0;
+
+    @Test
+    public void captureLoopDoesNotAllocateOnceWarm() {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // 워밍업 : 버퍼 풀 / JIT 준비
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            captureFrame(i);
+        }
+        PcmBufferPool.Buffer warm = pool.acquire();
+        short[] warmData = warm.data();
+        warm.release();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < FRAMES; i++) {
+            captureFrame(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // 측정 / JIT 전환 중 생기는 몇 KB 는 허용 : 프레임마다 객체 하나(16바이트 이상)만 만들어도 FRAMES 배를 넘음
+        assertTrue("allocated " + allocated + " bytes in " + FRAMES + " frames", allocated < FRAMES);
+
+        PcmBufferPool.Buffer again = pool.acquire();
+        assertSame(warm, again);
+        assertSame(warmData, again.data());
+        again.release();
+        assertTrue(checksum != 0);
+    }
+
+    @Test
+    public void growthStopsAtContextCapacity() {
+        short[] longSpeech = PcmFixtures.speech(40f, 3);
+        ring.write(longSpeech, 0, longSpeech.length);
+
+        PcmBufferPool.Buffer pcm = pool.acquire();
+        pcm.copyFrom(ring.last(SAMPLE_RATE * 25, view));  // 두 배(20초)로 모자라면 구간 길이만큼
+        assertEquals(SAMPLE_RATE * 25, pcm.capacity());
+
+        pcm.copyFrom(ring.last(SAMPLE_RATE * 26, view));  // 두 배(50초) 대신 30초 상한
+        assertEquals(CONTEXT_SAMPLES, pcm.capacity());
+
+        short[] capped = pcm.data();
+        pcm.copyFrom(ring.last(SAMPLE_RATE * 60, view));  // 원형 버퍼 전체 (30초) : 더 커지지 않음
+        assertEquals(CONTEXT_SAMPLES, pcm.length());
+        assertSame(capped, pcm.data());
+        assertEquals(longSpeech[longSpeech.length - 1], pcm.data()[pcm.length() - 1]);
+        pcm.release();
+
+        assertSame(pcm, pool.acquire());
+    }
+
+    @Test
+    public void encodeWritesLittleEndianChunks() {
+        ring.write(speech, 0, speech.length);
+        PcmBufferPool.Buffer pcm = pool.acquire();
+        pcm.copyFrom(ring.last(speech.length, view));
+
+        ByteBuffer chunk = pcm.encode(100, pcm.chunkSamples());
+        assertEquals(pcm.chunkSamples() * 2, chunk.remaining());
+        for (int i = 0; i < pcm.chunkSamples(); i++) {
+            short sample = speech[100 + i];
+            assertEquals((byte) sample, chunk.get(i * 2));
+            assertEquals((byte) (sample >> 8), chunk.get(i * 2 + 1));
+        }
+        pcm.release();
+    }
+
+    // MyBackgroundService.startVAD 한 번 읽기와 같은 순서
+    private void captureFrame(int index) {
+        int read = Math.min(frame.length, speech.length - readPos);
+        System.arraycopy(speech, readPos, frame, 0, read);
+        readPos = (readPos + read) % speech.length;
+
+        ring.write(frame, 0, read);
+        if (vad.process(frame, 0, read)) {
+            checksum++;
+        }
+
+        if (index % UTTERANCE_FRAMES == UTTERANCE_FRAMES - 1) {
+            PcmBufferPool.Buffer pcm = pool.acquire();
+            pcm.copyFrom(ring.last(SAMPLE_RATE * 4, view));
+            for (int offset = 0; offset < pcm.length(); offset += pcm.chunkSamples()) {
+                ByteBuffer chunk = pcm.encode(offset, Math.min(pcm.chunkSamples(), pcm.length() - offset));
+                checksum += chunk.get(0);
+            }
+            pcm.release();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// stop 과 재생 스레드의 take 가 겹쳐도 stop 전에 넣은 항목은 빠짐없이 (대기열에서 꺼내지거나 현재 재생으로) 잡히는지
+public class PlaybackQueueTest {
+
+    private static final class Item {
+        volatile boolean cancelled;
+        volatile boolean finished;
+    }
+
+    @Test
+    public void stopReturnsQueuedAndCurrent() throws Exception {
+        PlaybackQueue<Item> queue = new PlaybackQueue<>();
+        Item first = new Item();
+        Item second = new Item();
+        queue.enqueue(first);
+        queue.enqueue(second);
+
+        assertSame(first, queue.take());
+        List<Item> dropped = new ArrayList<>();
+        assertSame(first, queue.stop(dropped));
+        assertEquals(1, dropped.size());
+        assertSame(second, dropped.get(0));
+        assertTrue(queue.isBusy());  // first 는 재생 스레드가 finish 할 때까지 재생 중
+
+        queue.finish(first);
+        assertFalse(queue.isBusy());
+        assertNull(queue.stop(new ArrayList<>()));
+    }
+
+    @Test
+    public void itemTakenDuringStopIsNeverMissed() throws Exception {
+        PlaybackQueue<Item> queue = new PlaybackQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int rounds = 3000;
+
+        TestThreads.runAll(2, thread -> {
+            if (thread == 0) {
+                // 재생 스레드 : 취소될 때까지(최대 2ms) 재생
+                try {
+                    while (running.get()) {
+                        Item item = queue.take();
+                        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+                        while (!item.cancelled && System.nanoTime() < end) {
+                            Thread.yield();
+                        }
+                        item.finished = true;
+                        queue.finish(item);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            // ResetAudio : 문장을 넣고 곧바로 stop
+            try {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < rounds; round++) {
+                    Item[] items = {new Item(), new Item()};
+                    for (Item item : items) {
+                        queue.enqueue(item);
+                    }
+                    for (int spin = random.nextInt(200); spin > 0; spin--) {
+                        Thread.yield();
+                    }
+
+                    List<Item> dropped = new ArrayList<>();
+                    Item playing = queue.stop(dropped);
+                    for (Item item : items) {
+                        boolean caught = dropped.contains(item) || item == playing || item.finished;
+                        assertTrue("round " + round + " : item escaped stop", caught);
+                    }
+                    for (Item item : dropped) {
+                        item.cancelled = true;
+                    }
+                    if (playing != null) {
+                        playing.cancelled = true;
+                    }
+                }
+            } finally {
+                running.set(false);
+                queue.enqueue(new Item());  // 대기 중인 take 깨우기
+            }
+        });
+    }
+}
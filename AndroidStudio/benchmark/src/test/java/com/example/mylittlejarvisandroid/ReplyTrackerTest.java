@@ -0,0 +1,47 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// 같은 대화의 스트림이 여러 레인에서 동시에 들어와도 문장마다 한 번만 TTS 로 보내는지
+public class ReplyTrackerTest {
+    private static final int THREADS = 8;
+    private static final int REPLIES = 500;
+
+    @Test
+    public void eachReplyIsDispatchedOnceAcrossThreads() throws Exception {
+        ReplyTracker tracker = new ReplyTracker();
+        for (int round = 0; round < 20; round++) {
+            String chatIdx = String.valueOf(round);
+            AtomicIntegerArray dispatched = new AtomicIntegerArray(REPLIES);
+            TestThreads.runAll(THREADS, thread -> {
+                for (int i = 0; i < REPLIES; i++) {
+                    int index = (i * (thread + 1)) % REPLIES;  // 스레드마다 다른 순서
+                    if (tracker.markDispatched(chatIdx, index)) {
+                        dispatched.incrementAndGet(index);
+                    }
+                }
+            });
+            for (int i = 0; i < REPLIES; i++) {
+                assertEquals("reply " + i, 1, dispatched.get(i));  // 0번 스레드가 모든 순번을 지나므로 정확히 한 번
+            }
+            assertEquals(REPLIES, tracker.dispatchedCount(chatIdx));
+        }
+    }
+
+    @Test
+    public void newChatIdxStartsOver() {
+        ReplyTracker tracker = new ReplyTracker();
+        assertTrue(tracker.markDispatched("1", 0));
+        assertFalse(tracker.markDispatched("1", 0));
+        assertTrue(tracker.markDispatched("2", 0));
+        assertEquals(0, tracker.dispatchedCount("1"));
+        tracker.reset();
+        assertTrue(tracker.markDispatched("2", 0));
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.mylittlejarvisandroid;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// 스트리밍 STT 세션을 MockWebServer 에 붙여서
+// 청크 -> partial, finish -> 완성된 partial 한 번 + finalize 인지,
+// 대화가 버려지면 취소만 하고 onFailed(일반 업로드로 다시 전송)는 부르지 않는지 확인
+public class SttStreamTest {
+    private static final int CHAT_IDX = 5;
+    private static final int SAMPLE_RATE = 16000;
+    private static final int MIN_CHUNK = 1600;  // 0.1초
+
+    private final MockWebServer server = new MockWebServer();
+    private final ServiceScheduler scheduler = new ServiceScheduler();
+    private final CallTracker tracker = new CallTracker(scheduler);
+    private final AudioRingBuffer ring = new AudioRingBuffer(SAMPLE_RATE);
+    private final AudioRingBuffer.View view = new AudioRingBuffer.View();
+    private final PcmBufferPool pool = new PcmBufferPool(1, SAMPLE_RATE, SAMPLE_RATE);
+    private final Recorder listener = new Recorder();
+    private final CountDownLatch release = new CountDownLatch(1);  // 응답을 붙잡아 두는 dispatcher 해제
+    private ApiService apiService;
+    private SttStream stream;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        tracker.startTurn(CHAT_IDX);
+        stream = new SttStream(apiService, tracker, scheduler.api, CHAT_IDX, SAMPLE_RATE, MIN_CHUNK, listener);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        tracker.cancelAll();
+        scheduler.shutdown();
+        server.shutdown();
+    }
+
+    @Test
+    public void partialsThenCompletePartialThenFinal() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/stt_stream/chunk")) {
+                    String seq = request.getRequestUrl().queryParameter("seq");
+                    return json("{\"partial\":\"" + ("0".equals(seq) ? "안녕" : "안녕하세요") + "\"}");
+                }
+                return json("{\"text\":\"안녕하세요\",\"lang\":\"ko\",\"chatIdx\":\"5\"}");
+            }
+        });
+
+        short[] first = samples(MIN_CHUNK, 0);
+        stream.append(write(first));
+        assertEquals("partial 안녕 false", listener.next());
+
+        // 최소 청크보다 짧은 나머지는 finish 때 보냄
+        short[] rest = samples(500, MIN_CHUNK);
+        stream.append(write(rest));
+        assertEquals(1, server.getRequestCount());
+
+        PcmBufferPool.Buffer utterance = pool.acquire();
+        stream.finish(utterance);
+        assertEquals("partial 안녕하세요 true", listener.next());
+        assertEquals("final 안녕하세요", listener.next());
+        assertNull(listener.poll());
+        assertSame(utterance, stream.utterance());
+
+        RecordedRequest chunk0 = server.takeRequest();
+        RecordedRequest chunk1 = server.takeRequest();
+        RecordedRequest finalize = server.takeRequest();
+        String streamId = chunk0.getRequestUrl().queryParameter("stream_id");
+        assertNotNull(streamId);
+        assertChunk(chunk0, streamId, 0, first);
+        assertChunk(chunk1, streamId, 1, rest);
+
+        assertEquals("/stt_stream/finalize", finalize.getPath());
+        JsonObject body = JsonParser.parseString(finalize.getBody().readUtf8()).getAsJsonObject();
+        assertEquals(streamId, body.get("stream_id").getAsString());
+        assertEquals(2, body.get("chunks").getAsInt());
+        assertEquals(MIN_CHUNK + 500, body.get("samples").getAsLong());
+        assertEquals("5", body.get("chatIdx").getAsString());
+    }
+
+    @Test
+    public void unsupportedEndpointReportsFailureAfterFinish() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        stream.append(write(samples(MIN_CHUNK, 0)));
+        server.takeRequest();
+        waitUntilFailed();
+        assertNull(listener.poll());  // 발화 중 실패는 finish 까지 알리지 않음
+
+        stream.append(write(samples(MIN_CHUNK, 0)));  // 실패 후에는 보내지 않음
+        stream.finish(pool.acquire());
+        assertEquals("failed true", listener.next());
+        assertNull(listener.poll());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void abandonedTurnCancelsChunkInFlight() throws Exception {
+        // 응답이 오지 않는 청크 : 새 대화가 시작되면 CallTracker 가 취소
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await();
+                return json("{\"partial\":\"늦은 결과\"}");
+            }
+        });
+
+        stream.append(write(samples(MIN_CHUNK, 0)));
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+
+        PcmBufferPool.Buffer utterance = pool.acquire();
+        stream.finish(utterance);  // 응답 대기 중 : finalize 는 아직 보내지 않음
+        assertTrue(tracker.startTurn(CHAT_IDX + 1));
+        waitUntilFailed();
+
+        // 실패가 아니라 지난 대화 : 다시 올리지 않고 발화 스냅샷만 반납
+        assertNull(listener.poll());
+        assertSame(utterance, pool.acquire());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void turnAbandonedDuringSpeechDoesNotFallBack() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await();
+                return json("{\"partial\":\"늦은 결과\"}");
+            }
+        });
+
+        stream.append(write(samples(MIN_CHUNK, 0)));
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        assertTrue(tracker.startTurn(CHAT_IDX + 1));
+        waitUntilFailed();
+
+        PcmBufferPool.Buffer utterance = pool.acquire();
+        stream.finish(utterance);  // 발화가 끝나도 알림 없음
+        assertNull(listener.poll());
+        assertSame(utterance, pool.acquire());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void transportErrorStillFallsBack() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        stream.append(write(samples(MIN_CHUNK, 0)));
+        waitUntilFailed();
+        stream.finish(pool.acquire());
+        assertEquals("failed false", listener.next());  // 실제 전송 실패만 일반 업로드로
+        assertNull(listener.poll());
+    }
+
+    @Test
+    public void streamOfAbandonedTurnSendsNothing() throws Exception {
+        tracker.startTurn(CHAT_IDX + 1);
+
+        stream.append(write(samples(MIN_CHUNK, 0)));
+        waitUntilFailed();
+        PcmBufferPool.Buffer utterance = pool.acquire();
+        stream.finish(utterance);
+        assertNull(listener.poll());
+        assertSame(utterance, pool.acquire());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private AudioRingBuffer.View write(short[] samples) {
+        ring.write(samples, 0, samples.length);
+        return ring.last(samples.length, view);
+    }
+
+    private static short[] samples(int length, int start) {
+        short[] samples = new short[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (short) ((start + i) * 37);
+        }
+        return samples;
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static void assertChunk(RecordedRequest request, String streamId, int seq, short[] samples) {
+        assertEquals("/stt_stream/chunk", request.getRequestUrl().encodedPath());
+        assertEquals(streamId, request.getRequestUrl().queryParameter("stream_id"));
+        assertEquals(String.valueOf(seq), request.getRequestUrl().queryParameter("seq"));
+        assertEquals(String.valueOf(SAMPLE_RATE), request.getRequestUrl().queryParameter("sample_rate"));
+        Buffer body = request.getBody();
+        assertEquals(samples.length * 2L, body.size());
+        for (short sample : samples) {
+            assertEquals(sample, body.readShortLe());
+        }
+    }
+
+    private void waitUntilFailed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!stream.isFailed()) {
+            assertTrue("stream did not fail", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    // listener 호출을 문자열로 기록
+    private static final class Recorder implements SttStream.Listener {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onPartial(SttStream stream, String text, boolean complete) {
+            events.add("partial " + text + " " + complete);
+        }
+
+        @Override
+        public void onFinal(SttStream stream, JsonObject result) {
+            events.add("final " + result.get("text").getAsString());
+        }
+
+        @Override
+        public void onFailed(SttStream stream, boolean unsupported) {
+            events.add("failed " + unsupported);
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull("no listener event", event);
+            return event;
+        }
+
+        // 더 오는 호출이 없는지 (잠깐 기다림)
+        String poll() throws InterruptedException {
+            return events.poll(200, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.mylittlejarvisandroid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// 동시성 테스트용 : 여러 스레드를 동시에 출발시키고 끝날 때까지 대기 (스레드 안의 실패 / 예외는 그대로 다시 던짐)
+final class TestThreads {
+    interface Body {
+        void run(int thread) throws Exception;
+    }
+
+    private TestThreads() {
+    }
+
+    static void runAll(int threads, Body body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    body.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (Exception) cause;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
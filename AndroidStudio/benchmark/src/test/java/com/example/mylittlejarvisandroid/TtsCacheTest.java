@@ -0,0 +1,137 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// 디스크 인덱스 미리 로드 / 재시작 후 LRU 유지 / 상한 정리,
+// 잠금 밖에서 파일을 읽고 쓰는 동안 여러 스레드가 같은 키를 넣고 읽어도 내용이 섞이지 않는지
+public class TtsCacheTest {
+    private static final int ENTRY_BYTES = 4096;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void diskEntriesSurviveRestart() throws Exception {
+        File dir = folder.newFolder("tts");
+        TtsCache first = new TtsCache(dir, 0, ENTRY_BYTES * 4);  // 메모리 상한 0 : 디스크에만
+        TtsCache.Key key = key("안녕하세요");
+        byte[] wav = wav(1);
+        first.put(key, wav);
+
+        TtsCache second = new TtsCache(dir, ENTRY_BYTES * 8, ENTRY_BYTES * 4);
+        second.warmUp();
+        assertArrayEquals(wav, second.get(key));
+        assertArrayEquals(wav, second.get(key));  // 두 번째는 메모리에서
+        assertTrue(second.stats(), second.stats().contains("memory=1, disk=1, miss=0"));
+        assertNull(second.get(key("다른 문장")));
+    }
+
+    @Test
+    public void warmUpRemovesPartialFilesAndTrimsOldest() throws Exception {
+        File dir = folder.newFolder("tts");
+        TtsCache writer = new TtsCache(dir, 0, ENTRY_BYTES * 10);
+        for (int i = 0; i < 3; i++) {
+            writer.put(key("문장 " + i), wav(i));
+            fileOf(dir, key("문장 " + i)).setLastModified(1_000_000L * (i + 1));  // 0 이 가장 오래됨
+        }
+        File partial = new File(dir, "abc.1.tmp");
+        try (FileOutputStream out = new FileOutputStream(partial)) {
+            out.write(new byte[100]);
+        }
+
+        // 두 개만 들어가는 상한으로 다시 시작 : 가장 오래 안 쓴 항목부터 삭제
+        TtsCache cache = new TtsCache(dir, 0, ENTRY_BYTES * 2 + 100);
+        cache.warmUp();
+        assertFalse(partial.exists());
+        assertFalse(fileOf(dir, key("문장 0")).exists());
+        assertNull(cache.get(key("문장 0")));
+        assertArrayEquals(wav(1), cache.get(key("문장 1")));
+        assertArrayEquals(wav(2), cache.get(key("문장 2")));
+    }
+
+    @Test
+    public void missingFileIsTreatedAsMiss() throws Exception {
+        File dir = folder.newFolder("tts");
+        TtsCache cache = new TtsCache(dir, 0, ENTRY_BYTES * 4);
+        TtsCache.Key key = key("지워진 문장");
+        cache.put(key, wav(3));
+        assertTrue(fileOf(dir, key).delete());
+
+        assertNull(cache.get(key));
+        cache.put(key, wav(4));
+        assertArrayEquals(wav(4), cache.get(key));
+    }
+
+    @Test
+    public void concurrentPutAndGetNeverMixEntries() throws Exception {
+        File dir = folder.newFolder("tts");
+        int keys = 12;
+        // 메모리 / 디스크 모두 일부만 들어가는 크기 : 읽기 / 쓰기 / 정리가 계속 겹침
+        TtsCache cache = new TtsCache(dir, ENTRY_BYTES * 8, ENTRY_BYTES * 6);
+
+        TestThreads.runAll(8, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2000; i++) {
+                int k = random.nextInt(keys);
+                if (random.nextInt(3) == 0) {
+                    cache.put(key("문장 " + k), wav(k));
+                } else {
+                    byte[] data = cache.get(key("문장 " + k));
+                    if (data != null) {
+                        assertArrayEquals(wav(k), data);
+                    }
+                }
+            }
+        });
+
+        long total = 0;
+        File[] files = dir.listFiles();
+        for (File file : files) {
+            assertTrue(file.getName(), file.getName().endsWith(".wav"));
+            total += file.length();
+        }
+        assertTrue("disk " + total, total <= ENTRY_BYTES * 6);
+
+        // 다시 시작해도 남은 파일은 모두 올바른 내용
+        TtsCache reopened = new TtsCache(dir, 0, ENTRY_BYTES * 6);
+        reopened.warmUp();
+        int found = 0;
+        for (int k = 0; k < keys; k++) {
+            byte[] data = reopened.get(key("문장 " + k));
+            if (data != null) {
+                assertArrayEquals(wav(k), data);
+                found++;
+            }
+        }
+        assertEquals(files.length, found);
+    }
+
+    private static TtsCache.Key key(String text) {
+        return new TtsCache.Key(text, "arona", "ko", "1.0");
+    }
+
+    private static File fileOf(File dir, TtsCache.Key key) {
+        return new File(dir, key.id + ".wav");
+    }
+
+    // 헤더 뒤를 index 로 채운 WAV 크기 데이터
+    private static byte[] wav(int index) {
+        byte[] data = new byte[ENTRY_BYTES];
+        for (int i = WavUtils.HEADER_SIZE; i < data.length; i++) {
+            data[i] = (byte) index;
+        }
+        return data;
+    }
+}
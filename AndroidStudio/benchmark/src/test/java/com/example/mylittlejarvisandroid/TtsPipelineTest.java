@@ -0,0 +1,172 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// 합성 완료 / reset / 같은 chatIdx 재시작이 서로 다른 스레드에서 겹쳐도
+// 이전 run 의 늦은 완료가 inFlight 나 재생 순서를 건드리지 않는지
+public class TtsPipelineTest {
+    private static final int MAX_IN_FLIGHT = 3;
+
+    // 어떤 요청의 합성 결과인지 기록한 음성
+    private static final class Audio {
+        final TtsPipeline.Request request;
+
+        Audio(TtsPipeline.Request request) {
+            this.request = request;
+        }
+    }
+
+    @Test
+    public void lateCompletionAfterResetAndResubmitIsIgnored() {
+        List<TtsPipeline.Request> started = new ArrayList<>();
+        List<Audio> played = new ArrayList<>();
+        TtsPipeline<Audio> pipeline = new TtsPipeline<>(MAX_IN_FLIGHT, started::add,
+                (chatIdx, seq, audio) -> played.add(audio));
+
+        pipeline.submit("1", "old");
+        TtsPipeline.Request old = started.get(0);
+        pipeline.reset();
+        pipeline.submit("1", "new");  // 같은 chatIdx 로 다시 시작
+        TtsPipeline.Request fresh = started.get(1);
+        assertEquals(old.seq, fresh.seq);
+        assertEquals(1, pipeline.inFlight());
+
+        assertFalse(pipeline.complete(old, new Audio(old)));
+        assertEquals(1, pipeline.inFlight());
+        assertTrue(played.isEmpty());
+
+        assertTrue(pipeline.complete(fresh, new Audio(fresh)));
+        assertEquals(0, pipeline.inFlight());
+        assertEquals(1, played.size());
+        assertSame(fresh, played.get(0).request);
+    }
+
+    @Test
+    public void duplicateCompletionIsIgnored() {
+        List<TtsPipeline.Request> started = new ArrayList<>();
+        List<Audio> played = new ArrayList<>();
+        TtsPipeline<Audio> pipeline = new TtsPipeline<>(MAX_IN_FLIGHT, started::add,
+                (chatIdx, seq, audio) -> played.add(audio));
+
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit("7", "line " + i);
+        }
+        assertEquals(MAX_IN_FLIGHT, pipeline.inFlight());
+        assertEquals(2, pipeline.pendingCount());
+
+        TtsPipeline.Request second = started.get(1);
+        assertTrue(pipeline.complete(second, new Audio(second)));
+        assertFalse(pipeline.complete(second, null));  // 성공 후 실패 처리가 한 번 더 와도 무시
+        assertEquals(MAX_IN_FLIGHT, pipeline.inFlight());  // 하나 끝나고 대기 중이던 하나 시작
+        assertTrue(played.isEmpty());  // 0번 대기
+
+        TtsPipeline.Request first = started.get(0);
+        assertTrue(pipeline.complete(first, new Audio(first)));
+        assertEquals(2, played.size());
+        assertSame(first, played.get(0).request);
+        assertSame(second, played.get(1).request);
+    }
+
+    @Test
+    public void completionsRacingResetKeepInFlightConsistent() throws Exception {
+        LinkedBlockingQueue<TtsPipeline.Request> synthesizing = new LinkedBlockingQueue<>();
+        AtomicInteger maxRunSeen = new AtomicInteger();
+        AtomicInteger playedCount = new AtomicInteger();
+        AtomicInteger discarded = new AtomicInteger();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        int[] lastPlayed = {-1, -1};  // run, seq (재생기는 파이프라인 락 안에서 호출)
+        TtsPipeline<Audio>[] holder = new TtsPipeline[1];
+        TtsPipeline<Audio> pipeline = new TtsPipeline<>(MAX_IN_FLIGHT,
+                request -> {
+                    maxRunSeen.accumulateAndGet(request.run, Math::max);
+                    synthesizing.add(request);
+                },
+                (chatIdx, seq, audio) -> {
+                    TtsPipeline.Request request = audio.request;
+                    if (request.seq != seq || !request.chatIdx.equals(chatIdx)) {
+                        errors.add("played " + request.chatIdx + "/" + request.seq + " as " + chatIdx + "/" + seq);
+                    }
+                    if (request.run < maxRunSeen.get()) {
+                        errors.add("played run " + request.run + " after run " + maxRunSeen.get() + " started");
+                    }
+                    if (request.run == lastPlayed[0] && seq <= lastPlayed[1]) {  // 실패한 문장은 건너뛰므로 증가만 확인
+                        errors.add("out of order " + lastPlayed[1] + " -> " + seq);
+                    }
+                    lastPlayed[0] = request.run;
+                    lastPlayed[1] = seq;
+                    int inFlight = holder[0].inFlight();
+                    if (inFlight < 0 || inFlight > MAX_IN_FLIGHT) {
+                        errors.add("inFlight " + inFlight);
+                    }
+                    playedCount.incrementAndGet();
+                },
+                audio -> discarded.incrementAndGet());
+        holder[0] = pipeline;
+
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        AtomicInteger working = new AtomicInteger();
+        int workers = 4;
+        TestThreads.runAll(workers + 1, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (thread == 0) {
+                // 같은 chatIdx 로 reset / 재시작을 반복 (가끔 새 chatIdx)
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        int action = random.nextInt(10);
+                        if (action == 0) {
+                            pipeline.reset();
+                        } else {
+                            pipeline.submit(action == 1 ? "2" : "1", "line " + i);
+                        }
+                    }
+                } finally {
+                    submitting.set(false);
+                }
+                return;
+            }
+            // 합성 완료 : 순서 무작위, 가끔 같은 요청을 두 번 (성공 후 실패 처리)
+            // (complete 가 다음 요청을 시작하면 working 을 줄이기 전에 대기열에 들어감)
+            while (submitting.get() || !synthesizing.isEmpty() || working.get() > 0) {
+                TtsPipeline.Request request = synthesizing.poll(1, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+                working.incrementAndGet();
+                try {
+                    boolean fail = random.nextInt(20) == 0;
+                    pipeline.complete(request, fail ? null : new Audio(request));
+                    if (random.nextInt(10) == 0) {
+                        pipeline.complete(request, null);
+                    }
+                    int inFlight = pipeline.inFlight();
+                    if (inFlight < 0 || inFlight > MAX_IN_FLIGHT) {
+                        errors.add("inFlight " + inFlight);
+                    }
+                } finally {
+                    working.decrementAndGet();
+                }
+            }
+        });
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertTrue(playedCount.get() > 0);
+        // 모든 합성이 끝났으므로 현재 run 에 남은 작업 없음
+        assertEquals(0, pipeline.inFlight());
+        assertEquals(0, pipeline.pendingCount());
+    }
+}
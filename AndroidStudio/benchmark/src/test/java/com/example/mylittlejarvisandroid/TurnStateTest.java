@@ -0,0 +1,89 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// 녹음 스레드 / API 레인 / 스트림 레인이 동시에 대화 번호를 발급 / 시작 / 비교해도 대화가 앞으로만 진행하는지
+public class TurnStateTest {
+    private static final int THREADS = 8;
+    private static final int TURNS_PER_THREAD = 20000;
+
+    @Test
+    public void turnsOnlyAdvanceUnderContention() throws Exception {
+        TurnState state = new TurnState();
+        Set<Integer> issued = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger writers = new AtomicInteger(THREADS - 1);
+
+        TestThreads.runAll(THREADS, thread -> {
+            if (thread == 0) {
+                // 읽기 스레드 : success 는 줄어들지 않고, 한 번 지난 대화는 계속 지난 대화
+                int last = state.success();
+                while (writing.get()) {
+                    int current = state.success();
+                    assertTrue("success went back " + last + " -> " + current, current >= last);
+                    if (last > 0) {
+                        assertTrue(state.isOlder(last - 1));
+                    }
+                    last = current;
+                }
+                return;
+            }
+            try {
+                for (int i = 0; i < TURNS_PER_THREAD; i++) {
+                    int turn = state.next();
+                    assertTrue("duplicate chatIdx " + turn, issued.add(turn));
+                    if (state.advance(turn)) {
+                        assertTrue(state.success() >= turn);
+                    } else {
+                        assertTrue("rejected turn " + turn + " is not older than " + state.success(), state.isOlder(turn));
+                    }
+                }
+            } finally {
+                if (writers.decrementAndGet() == 0) {
+                    writing.set(false);
+                }
+            }
+        });
+
+        int total = (THREADS - 1) * TURNS_PER_THREAD;
+        assertEquals(total, issued.size());
+        assertEquals(total, state.success());  // 가장 큰 번호가 마지막에 남음
+        assertFalse(state.advance(total - 1));
+        assertTrue(state.advance(total));
+    }
+
+    @Test
+    public void nextAfterIssuesOnlyOnceForTheSameTurn() throws Exception {
+        TurnState state = new TurnState();
+        for (int round = 0; round < 200; round++) {
+            int turn = state.next();
+            AtomicInteger winners = new AtomicInteger();
+            TestThreads.runAll(THREADS, thread -> {
+                int next = state.nextAfter(turn);
+                if (next != -1) {
+                    assertEquals(turn + 1, next);
+                    winners.incrementAndGet();
+                }
+            });
+            assertEquals(1, winners.get());
+        }
+    }
+
+    @Test
+    public void nonNumericChatIdxIsNeverCurrent() {
+        TurnState state = new TurnState();
+        assertTrue(state.advance("3"));
+        assertFalse(state.advance("abc"));
+        assertFalse(state.isCurrent("abc"));
+        assertTrue(state.isCurrent("3"));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mylittlejarvisandroid;
+
+// 업로드 인코더 테스트용 : PCM 배열을 녹음 스냅샷 버퍼로
+final class UplinkTestSupport {
+    private UplinkTestSupport() {
+    }
+
+    static PcmBufferPool.Buffer buffer(short[] pcm) {
+        AudioRingBuffer ring = new AudioRingBuffer(Math.max(1, pcm.length));
+        ring.write(pcm, 0, pcm.length);
+        PcmBufferPool.Buffer buffer = new PcmBufferPool(1, pcm.length, Math.max(1, pcm.length)).acquire();
+        buffer.copyFrom(ring.last(pcm.length, null));
+        return buffer;
+    }
+}
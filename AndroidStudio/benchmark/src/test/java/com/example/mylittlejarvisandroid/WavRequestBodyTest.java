@@ -0,0 +1,49 @@
+package com.example.mylittlejarvisandroid;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+// 업로드 본문의 WAV 헤더가 buildWavHeader 와 같고 (같은 helper), 44바이트 PCM 16비트 모노 형식 그대로인지
+public class WavRequestBodyTest {
+
+    @Test
+    public void headerIsThe44BytePcmLayout() {
+        byte[] expected = {
+                'R', 'I', 'F', 'F', 44, 0, 0, 0, 'W', 'A', 'V', 'E',
+                'f', 'm', 't', ' ', 16, 0, 0, 0, 1, 0, 1, 0,
+                (byte) 0x80, 0x3E, 0, 0, 0, 0x7D, 0, 0, 2, 0, 16, 0,  // 16000Hz, byteRate 32000
+                'd', 'a', 't', 'a', 8, 0, 0, 0};
+        assertArrayEquals(expected, WavUtils.buildWavHeader(8, 16000));
+    }
+
+    @Test
+    public void bodyIsHeaderFollowedByLittleEndianPcm() throws Exception {
+        short[] pcm = {0, 1, -1, Short.MAX_VALUE, Short.MIN_VALUE};
+        WavRequestBody body = new WavRequestBody(UplinkTestSupport.buffer(pcm), 24000);
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        byte[] bytes = sink.readByteArray();
+
+        assertEquals(body.contentLength(), bytes.length);
+        byte[] header = new byte[WavUtils.HEADER_SIZE];
+        System.arraycopy(bytes, 0, header, 0, header.length);
+        assertArrayEquals(WavUtils.buildWavHeader(pcm.length * 2, 24000), header);
+
+        WavUtils.WavFormat format = WavUtils.readWavHeader(new ByteArrayInputStream(bytes));
+        assertNotNull(format);
+        assertEquals(24000, format.sampleRate);
+        assertEquals(1, format.channels);
+        assertEquals(16, format.bitsPerSample);
+        for (int i = 0; i < pcm.length; i++) {
+            int offset = WavUtils.HEADER_SIZE + i * 2;
+            assertEquals("sample " + i, pcm[i], (short) ((bytes[offset] & 0xff) | (bytes[offset + 1] << 8)));
+        }
+    }
+}
@@ -6,6 +6,20 @@ public class BackgroundService : MonoBehaviour
     private AndroidJavaObject unityActivity;  // Unity의 현재 액티비티
     private AndroidJavaObject pluginClass;    // Android 플러그인 클래스
 
+    // Android BridgeOutbox 가 한 프레임 동안 모아 보낸 메시지 ({"events":[{"method", "payload"}, ...]})
+    [Serializable]
+    private class BridgeEvent
+    {
+        public string method;
+        public string payload;
+    }
+
+    [Serializable]
+    private class BridgeBatch
+    {
+        public BridgeEvent[] events;
+    }
+
     void Start()
     {
         // 초기화 및 Android Activity 연결
@@ -98,6 +112,31 @@ public class BackgroundService : MonoBehaviour
         pluginClass.CallStatic("ReceiveServerTypeIdx", server_type_idx);
         Debug.Log("InitializePlugin Send server_type_idx finish : " + server_type_idx);
 
+        // VAD 엔진 전송 (energy, zcr, spectral)
+        String vad_type = string.IsNullOrEmpty(SettingManager.Instance.settings.vad_type) ? "energy" : SettingManager.Instance.settings.vad_type;
+        pluginClass.CallStatic("ReceiveVadType", vad_type);
+        Debug.Log("InitializePlugin Send vad_type finish : " + vad_type);
+
+        // STT 업로드 포맷 전송 (wav, mulaw, adpcm, aac)
+        String uplink_format = string.IsNullOrEmpty(SettingManager.Instance.settings.uplink_format) ? "wav" : SettingManager.Instance.settings.uplink_format;
+        pluginClass.CallStatic("ReceiveUplinkFormat", uplink_format);
+        Debug.Log("InitializePlugin Send uplink_format finish : " + uplink_format);
+
+        // STT 방식 전송 (batch, stream)
+        String stt_mode = string.IsNullOrEmpty(SettingManager.Instance.settings.stt_mode) ? "batch" : SettingManager.Instance.settings.stt_mode;
+        pluginClass.CallStatic("ReceiveSttMode", stt_mode);
+        Debug.Log("InitializePlugin Send stt_mode finish : " + stt_mode);
+
+        // 부분 인식 결과로 대화 미리 시작 여부 전송 (off, on)
+        String speculative_start = string.IsNullOrEmpty(SettingManager.Instance.settings.speculative_start) ? "off" : SettingManager.Instance.settings.speculative_start;
+        pluginClass.CallStatic("ReceiveSpeculativeStart", speculative_start);
+        Debug.Log("InitializePlugin Send speculative_start finish : " + speculative_start);
+
+        // 서비스 로그 레벨 전송 (verbose, debug, info, warn, error)
+        String log_level = string.IsNullOrEmpty(SettingManager.Instance.settings.log_level) ? "info" : SettingManager.Instance.settings.log_level;
+        pluginClass.CallStatic("ReceiveLogLevel", log_level);
+        Debug.Log("InitializePlugin Send log_level finish : " + log_level);
+
         // dev_voice URL 전송 (server_type_idx=2일 때 TTS용)
         // Unity에서 ServerManager를 통해 dev_voice URL 가져오기
         ServerManager.Instance.GetServerUrlFromServerId("dev_voice", (devVoiceUrl) =>
@@ -138,6 +177,29 @@ public class BackgroundService : MonoBehaviour
         #endif
     }
 
+    // 대화 단계별 지연 통계 요청 (결과는 OnLatencyReport 로 수신)
+    public void RequestLatencyReport()
+    {
+        #if UNITY_ANDROID && !UNITY_EDITOR  // 안드로이드
+        pluginClass.CallStatic("RequestLatencyReport");
+        #endif
+    }
+
+    public void ResetLatencyStats()
+    {
+        #if UNITY_ANDROID && !UNITY_EDITOR  // 안드로이드
+        pluginClass.CallStatic("ResetLatencyStats");
+        #endif
+    }
+
+    // 서비스 메모리 로그 저장 (결과 파일 경로는 OnServiceLogDumped 로 수신)
+    public void DumpServiceLog()
+    {
+        #if UNITY_ANDROID && !UNITY_EDITOR  // 안드로이드
+        pluginClass.CallStatic("DumpServiceLog");
+        #endif
+    }
+
     // 녹음 시작
     public void StartRecording(string duration)
     {
@@ -163,4 +225,29 @@ public class BackgroundService : MonoBehaviour
         }
         Debug.Log("Bye From " + name);
     }
+
+    // 지연 통계 수신 (단계별 count / p50 / p90 / p99 / max / mean, 단위 ms)
+    public void OnLatencyReport(string report)
+    {
+        Debug.Log("[Latency] " + report);
+    }
+
+    public void OnServiceLogDumped(string path)
+    {
+        Debug.Log("[ServiceLog] " + path);
+    }
+
+    // 모아 보낸 메시지를 보낸 순서대로 같은 GameObject 에 전달
+    public void OnBridgeBatch(string json)
+    {
+        BridgeBatch batch = JsonUtility.FromJson<BridgeBatch>(json);
+        if (batch == null || batch.events == null)
+        {
+            return;
+        }
+        foreach (BridgeEvent bridgeEvent in batch.events)
+        {
+            gameObject.SendMessage(bridgeEvent.method, bridgeEvent.payload, SendMessageOptions.DontRequireReceiver);
+        }
+    }
 }
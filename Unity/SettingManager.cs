@@ -185,6 +185,11 @@ public class SettingManager : MonoBehaviour
         public string sound_language;
         public float sound_volumeMaster;
         public float sound_speedMaster;
+        public string vad_type;  // 안드로이드 백그라운드 VAD 엔진 (energy, zcr, spectral)
+        public string uplink_format;  // 안드로이드 백그라운드 STT 업로드 포맷 (wav, mulaw, adpcm, aac)
+        public string stt_mode;  // 안드로이드 백그라운드 STT 방식 (batch, stream)
+        public string speculative_start;  // 안드로이드 백그라운드 부분 인식 결과로 대화 미리 시작 (off, on)
+        public string log_level;  // 안드로이드 백그라운드 로그 레벨 (verbose, debug, info, warn, error)
 
         public int server_type_idx;  // 0: Auto, 1: Local, 2: Google, 3: OpenRouter
         public string server_type;
@@ -1552,6 +1557,11 @@ public class SettingManager : MonoBehaviour
         settings.sound_language = "jp";
         settings.sound_volumeMaster = 70;
         settings.sound_speedMaster = 100;
+        settings.vad_type = "energy";
+        settings.uplink_format = "wav";
+        settings.stt_mode = "batch";
+        settings.speculative_start = "off";
+        settings.log_level = "info";
 
         settings.server_type_idx = 0;  // 0: Auto, 1: Local, 2: Google, 3: OpenRouter
         settings.server_type = "Auto";